@@ -0,0 +1,53 @@
+package com.example.weatherappjava.benchmarks;
+
+import com.example.weatherappjava.service.RedisCacheService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.YearMonth;
+
+/**
+ * Cache key generation, including the geohash cell lookup, against the former String.format keys.
+ */
+@State(Scope.Benchmark)
+public class CacheKeyBenchmark extends BaseBenchmark {
+    private RedisCacheService cacheService;
+    private final double latitude = 52.229676;
+    private final double longitude = 21.012229;
+    private final YearMonth month = YearMonth.of(2024, 3);
+    private String cell;
+
+    @Setup
+    public void setUp() {
+        cacheService = RedisCacheService.getInstance();
+        cell = cacheService.forecastCell(latitude, longitude);
+    }
+
+    @Benchmark
+    public String forecastKey() {
+        return cacheService.generateForecastCacheKey(cacheService.forecastCell(latitude, longitude), 7);
+    }
+
+    @Benchmark
+    public String forecastKeyKnownCell() {
+        return cacheService.generateForecastCacheKey(cell, 7);
+    }
+
+    @Benchmark
+    public String historicalKey() {
+        return cacheService.generateHistoricalCacheKey(cacheService.historicalCell(latitude, longitude), month);
+    }
+
+    @Benchmark
+    public String geocodeKey() {
+        return cacheService.generateGeocodeCacheKey("  Bielsko-Biała ", "pl");
+    }
+
+    @Benchmark
+    public String formattedKeyBaseline() {
+        return String.format("forecast:%f:%f:%d", latitude, longitude, 7);
+    }
+}
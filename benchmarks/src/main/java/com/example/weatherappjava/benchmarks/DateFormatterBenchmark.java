@@ -0,0 +1,31 @@
+package com.example.weatherappjava.benchmarks;
+
+import com.example.weatherappjava.util.DateFormatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date label formatting used by the grid and chart axes.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateFormatterBenchmark extends BaseBenchmark {
+    private final String apiDate = "2024-06-15";
+    private final LocalDate date = LocalDate.of(2024, 6, 15);
+
+    @Benchmark
+    public String formatApiDate() {
+        return DateFormatter.formatDate(apiDate);
+    }
+
+    @Benchmark
+    public String formatLocalDate() {
+        return DateFormatter.formatDate(date);
+    }
+}
@@ -1,11 +1,11 @@
-package com.example.weatherappjava.util;
+package com.example.weatherappjava.benchmarks;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 /**
- * Utility class for parsing and formatting JSON data.
+ * The org.json based parser the app used before the streaming decoder, kept as the parsing baseline.
  */
 public class JsonParser {
     /**
@@ -0,0 +1,51 @@
+package com.example.weatherappjava.benchmarks;
+
+import com.example.weatherappjava.model.WeatherData;
+import com.example.weatherappjava.service.HistoricalWeatherService;
+import com.example.weatherappjava.service.WeatherService;
+import com.example.weatherappjava.util.JsonRecord;
+import com.example.weatherappjava.util.OpenMeteoDecoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Building WeatherData from decoded responses.
+ */
+@State(Scope.Benchmark)
+public class ModelBenchmark extends BaseBenchmark {
+    @Param({"1", "16", "365", "3650"})
+    public int days;
+
+    private WeatherService weatherService;
+    private HistoricalWeatherService historicalWeatherService;
+    private JsonRecord forecast;
+    private JsonRecord archiveDaily;
+
+    @Setup
+    public void setUp() throws IOException {
+        weatherService = new WeatherService();
+        historicalWeatherService = new HistoricalWeatherService();
+        forecast = OpenMeteoDecoder.decode(Payloads.forecast(days), "current", "daily");
+        archiveDaily = OpenMeteoDecoder.decode(Payloads.archive(days), "daily").getRecord("daily");
+    }
+
+    @Benchmark
+    public WeatherData processForecastData() {
+        WeatherData weatherData = new WeatherData();
+        weatherService.processForecastData(weatherData, forecast);
+        return weatherData;
+    }
+
+    @Benchmark
+    public WeatherData processHistoricalData() {
+        WeatherData weatherData = new WeatherData();
+        historicalWeatherService.processHistoricalData(weatherData, archiveDaily);
+        return weatherData;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.weatherappjava.benchmarks;
+
+import com.example.weatherappjava.util.JsonRecord;
+import com.example.weatherappjava.util.OpenMeteoDecoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response parsing: the org.json based {@link JsonParser} (extraction of a section, then of an
+ * array, then of its elements) against the single-pass {@link OpenMeteoDecoder}.
+ */
+@State(Scope.Benchmark)
+public class ParseBenchmark extends BaseBenchmark {
+    @Param({"1", "16", "365", "3650"})
+    public int days;
+
+    private String archiveJson;
+    private byte[] archiveBytes;
+    private String archiveArray;
+
+    @Setup
+    public void setUp() {
+        archiveJson = Payloads.archive(days);
+        archiveBytes = archiveJson.getBytes(StandardCharsets.UTF_8);
+        archiveArray = Payloads.archiveArray(days);
+    }
+
+    @Benchmark
+    public String[] jsonParserExtractArray() {
+        String daily = JsonParser.extractStringFromJson(archiveJson, "daily");
+        return JsonParser.parseJsonArray(JsonParser.extractStringFromJson(daily, "temperature_2m_max"));
+    }
+
+    @Benchmark
+    public double jsonParserExtractDouble() {
+        return JsonParser.extractDoubleFromJson(archiveJson, "latitude");
+    }
+
+    @Benchmark
+    public String[] jsonParserParseArray() {
+        return JsonParser.parseJsonArray(archiveArray);
+    }
+
+    @Benchmark
+    public JsonRecord decodeDaily() throws IOException {
+        return OpenMeteoDecoder.decode(archiveBytes, "daily");
+    }
+
+    @Benchmark
+    public JsonRecord decodeDailyFromString() throws IOException {
+        return OpenMeteoDecoder.decode(archiveJson, "daily");
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.weatherappjava.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Open-Meteo shaped payloads for the benchmarks. Synthetic payloads are generated with a fixed
+ * seed so runs are comparable; a recorded response can be used instead by pointing the system
+ * property weather.bench.payload.&lt;kind&gt;.&lt;days&gt; (e.g. weather.bench.payload.archive.365)
+ * at a file.
+ */
+public final class Payloads {
+    private static final String[] FORECAST_DAILY = {
+            "temperature_2m_max", "temperature_2m_min", "precipitation_sum", "weather_code",
+            "windspeed_10m_mean", "relative_humidity_2m_mean", "surface_pressure_mean"
+    };
+    private static final String[] ARCHIVE_DAILY = {
+            "temperature_2m_max", "temperature_2m_min", "precipitation_sum", "weather_code",
+            "windspeed_10m_mean", "relative_humidity_2m_mean", "surface_pressure_mean",
+            "soil_temperature_0_to_7cm_mean"
+    };
+
+    private Payloads() {
+    }
+
+    /**
+     * Returns a forecast response (current + daily) with the given number of days.
+     */
+    public static String forecast(int days) {
+        String recorded = recorded("forecast", days);
+        if (recorded != null) {
+            return recorded;
+        }
+        return forecast(52.25, 21.0, days, 0);
+    }
+
+    /**
+     * Returns a synthetic forecast response for a location, optionally with extra daily variables
+     * (extra_1, extra_2, ...) to make the payload larger.
+     */
+    public static String forecast(double latitude, double longitude, int days, int extraVariables) {
+        StringBuilder json = new StringBuilder(256 + days * (120 + extraVariables * 6));
+        appendHeader(json, latitude, longitude)
+                .append(",\"current\":{\"time\":\"2024-06-01T12:00\",\"interval\":900,\"temperature_2m\":21.4,")
+                .append("\"relative_humidity_2m\":55,\"wind_speed_10m\":12.3,\"surface_pressure\":1003.2,")
+                .append("\"precipitation\":0.00,\"soil_temperature_0cm\":24.1},");
+        appendDaily(json, LocalDate.of(2024, 6, 1), days, withExtra(FORECAST_DAILY, extraVariables));
+        return json.append('}').toString();
+    }
+
+    /**
+     * Returns an archive response (daily only) with the given number of days.
+     */
+    public static String archive(int days) {
+        String recorded = recorded("archive", days);
+        if (recorded != null) {
+            return recorded;
+        }
+        return archive(52.25, 21.0, LocalDate.of(2024, 1, 1).minusDays(days), days, 0);
+    }
+
+    /**
+     * Returns a synthetic archive response for a location and date range, optionally with extra
+     * daily variables to make the payload larger.
+     */
+    public static String archive(double latitude, double longitude, LocalDate first, int days, int extraVariables) {
+        StringBuilder json = new StringBuilder(256 + days * (140 + extraVariables * 6));
+        appendHeader(json, latitude, longitude).append(',');
+        appendDaily(json, first, days, withExtra(ARCHIVE_DAILY, extraVariables));
+        return json.append('}').toString();
+    }
+
+    /**
+     * Returns a geocoding response with a single match, or with no results when latitude is NaN.
+     */
+    public static String geocoding(String name, double latitude, double longitude) {
+        if (Double.isNaN(latitude)) {
+            return "{\"generationtime_ms\":0.1}";
+        }
+        StringBuilder json = new StringBuilder(320);
+        json.append("{\"results\":[{\"id\":1,\"name\":\"").append(name.replace("\\", "\\\\").replace("\"", "\\\""))
+                .append("\",\"latitude\":").append(latitude).append(",\"longitude\":").append(longitude)
+                .append(",\"elevation\":100.0,\"feature_code\":\"PPL\",\"country_code\":\"PL\",")
+                .append("\"timezone\":\"Europe/Warsaw\",\"population\":10000,\"country\":\"Polska\"}],")
+                .append("\"generationtime_ms\":0.1}");
+        return json.toString();
+    }
+
+    /**
+     * Returns just the text of the "temperature_2m_max" array of an archive payload.
+     */
+    public static String archiveArray(int days) {
+        String json = archive(days);
+        int start = json.indexOf('[', json.indexOf("\"temperature_2m_max\":["));
+        return json.substring(start, json.indexOf(']', start) + 1);
+    }
+
+    private static StringBuilder appendHeader(StringBuilder json, double latitude, double longitude) {
+        return json.append("{\"latitude\":").append(latitude).append(",\"longitude\":").append(longitude)
+                .append(",\"generationtime_ms\":0.1,\"utc_offset_seconds\":7200,")
+                .append("\"timezone\":\"Europe/Warsaw\",\"elevation\":94.0");
+    }
+
+    private static String[] withExtra(String[] variables, int extra) {
+        String[] all = Arrays.copyOf(variables, variables.length + extra);
+        for (int i = 0; i < extra; i++) {
+            all[variables.length + i] = "extra_" + (i + 1);
+        }
+        return all;
+    }
+
+    private static void appendDaily(StringBuilder json, LocalDate first, int days, String[] variables) {
+        Random random = new Random(42);
+        json.append("\"daily_units\":{\"time\":\"iso8601\"},\"daily\":{\"time\":[");
+        for (int i = 0; i < days; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(first.plusDays(i)).append('"');
+        }
+        json.append(']');
+        for (String variable : variables) {
+            json.append(",\"").append(variable).append("\":[");
+            for (int i = 0; i < days; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                if (random.nextInt(200) == 0) {
+                    json.append("null"); // occasional gaps, as in real archive data
+                } else if (variable.equals("weather_code") || variable.startsWith("relative_humidity")) {
+                    json.append(random.nextInt(100));
+                } else {
+                    json.append(String.format(Locale.ROOT, "%.1f", base(variable) + random.nextGaussian() * 5));
+                }
+            }
+            json.append(']');
+        }
+        json.append('}');
+    }
+
+    private static double base(String variable) {
+        if (variable.startsWith("surface_pressure")) {
+            return 1005;
+        }
+        if (variable.startsWith("precipitation")) {
+            return 2;
+        }
+        if (variable.startsWith("windspeed")) {
+            return 12;
+        }
+        return 10;
+    }
+
+    private static String recorded(String kind, int days) {
+        String file = System.getProperty("weather.bench.payload." + kind + "." + days);
+        if (file == null) {
+            return null;
+        }
+        try {
+            Path path = Paths.get(file);
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read recorded payload " + file, e);
+        }
+    }
+}
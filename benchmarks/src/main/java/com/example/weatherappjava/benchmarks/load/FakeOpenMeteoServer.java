@@ -0,0 +1,318 @@
+package com.example.weatherappjava.benchmarks.load;
+
+import com.example.weatherappjava.benchmarks.Payloads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for the Open-Meteo forecast, archive and geocoding APIs. Serves synthetic
+ * payloads shaped like the real ones (or recorded responses) with configurable latency, error
+ * rate and payload size, so load tests run offline and reproducibly. Multi-location requests
+ * (comma-separated coordinates) get a JSON array, as from the real API.
+ * <p>
+ * Point the application at it with weather.api.forecastUrl, weather.api.archiveUrl and
+ * weather.api.geocodingUrl, e.g. {@code -Dweather.api.forecastUrl=http://localhost:8089/v1/forecast}.
+ */
+public class FakeOpenMeteoServer implements AutoCloseable {
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> recorded = new HashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    /**
+     * Starts a server on the given port (0 picks a free port).
+     */
+    public FakeOpenMeteoServer(int port, Settings settings) throws IOException {
+        this.settings = settings;
+        if (settings.recordedDir != null) {
+            for (String endpoint : new String[]{"forecast", "archive", "search"}) {
+                Path file = settings.recordedDir.resolve(endpoint + ".json");
+                if (Files.isRegularFile(file)) {
+                    recorded.put(endpoint, Files.readAllBytes(file));
+                }
+            }
+        }
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 256);
+        server.createContext("/v1/forecast", exchange -> handle(exchange, "forecast"));
+        server.createContext("/v1/archive", exchange -> handle(exchange, "archive"));
+        server.createContext("/v1/search", exchange -> handle(exchange, "search"));
+        executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "fake-open-meteo");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Returns the base URL of the server, e.g. http://127.0.0.1:8089.
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Sets the weather.api.* system properties so services created afterwards use this server.
+     */
+    public void installAsDefault() {
+        System.setProperty("weather.api.forecastUrl", getBaseUrl() + "/v1/forecast");
+        System.setProperty("weather.api.archiveUrl", getBaseUrl() + "/v1/archive");
+        System.setProperty("weather.api.geocodingUrl", getBaseUrl() + "/v1/search");
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, String endpoint) throws IOException {
+        try {
+            requests.incrementAndGet();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            long delay = settings.latencyMs + (settings.jitterMs > 0 ? random.nextLong(settings.jitterMs + 1) : 0);
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            byte[] body;
+            int status;
+            if (random.nextDouble() < settings.errorRate) {
+                errors.incrementAndGet();
+                status = 503;
+                body = "{\"error\":true,\"reason\":\"Simulated upstream error\"}".getBytes(StandardCharsets.UTF_8);
+            } else {
+                try {
+                    body = payload(endpoint, query);
+                    status = 200;
+                } catch (RuntimeException e) {
+                    status = 400;
+                    body = ("{\"error\":true,\"reason\":\"" + e.getMessage() + "\"}").getBytes(StandardCharsets.UTF_8);
+                }
+            }
+
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (settings.gzip && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                body = gzip(body);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            bytesSent.addAndGet(body.length);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] payload(String endpoint, Map<String, String> query) {
+        if (endpoint.equals("search")) {
+            byte[] fixed = recorded.get(endpoint);
+            if (fixed != null) {
+                return fixed;
+            }
+            String name = query.getOrDefault("name", "");
+            return Payloads.geocoding(name, latitudeOf(name), longitudeOf(name)).getBytes(StandardCharsets.UTF_8);
+        }
+
+        String[] latitudes = query.getOrDefault("latitude", "52.25").split(",");
+        String[] longitudes = query.getOrDefault("longitude", "21.0").split(",");
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Parameter 'latitude' and 'longitude' must have the same number of elements");
+        }
+
+        StringBuilder json = new StringBuilder();
+        if (latitudes.length > 1) {
+            json.append('[');
+        }
+        for (int i = 0; i < latitudes.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            byte[] fixed = recorded.get(endpoint);
+            if (fixed != null) {
+                json.append(new String(fixed, StandardCharsets.UTF_8));
+                continue;
+            }
+            double latitude = Double.parseDouble(latitudes[i]);
+            double longitude = Double.parseDouble(longitudes[i]);
+            if (endpoint.equals("forecast")) {
+                int days = Integer.parseInt(query.getOrDefault("forecast_days", "7"));
+                json.append(Payloads.forecast(latitude, longitude, days, settings.extraVariables));
+            } else {
+                LocalDate start = LocalDate.parse(query.get("start_date"));
+                LocalDate end = LocalDate.parse(query.get("end_date"));
+                int days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+                json.append(Payloads.archive(latitude, longitude, start, days, settings.extraVariables));
+            }
+        }
+        if (latitudes.length > 1) {
+            json.append(']');
+        }
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Deterministic coordinates within Poland derived from the name; names starting with
+     * "unknown" are not found (NaN).
+     */
+    static double latitudeOf(String name) {
+        if (name.toLowerCase(Locale.ROOT).startsWith("unknown")) {
+            return Double.NaN;
+        }
+        return 49.0 + Math.floorMod(name.hashCode(), 5000) / 1000.0;
+    }
+
+    static double longitudeOf(String name) {
+        return 14.5 + Math.floorMod(name.hashCode() * 31 + 7, 9000) / 1000.0;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Runs the server standalone until killed.
+     * <pre>
+     * FakeOpenMeteoServer [--port N] [--latency MS] [--jitter MS] [--error-rate R]
+     *                     [--extra-variables N] [--no-gzip] [--recorded DIR]
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        int port = 8089;
+        Settings settings = new Settings();
+        for (int i = 0; i < args.length; ) {
+            if (args[i].equals("--port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[i + 1]);
+                i += 2;
+                continue;
+            }
+            int used = settings.parseOption(args, i);
+            if (used == 0) {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+            i += used;
+        }
+        FakeOpenMeteoServer server = new FakeOpenMeteoServer(port, settings);
+        System.out.println("Fake Open-Meteo listening on " + server.getBaseUrl() + " (" + settings + ")");
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Behaviour of the fake server.
+     */
+    public static class Settings {
+        long latencyMs;
+        long jitterMs;
+        double errorRate;
+        int extraVariables;
+        boolean gzip = true;
+        Path recordedDir;
+
+        /**
+         * Applies the server option at args[i] and returns the number of arguments it used,
+         * or 0 if args[i] is not a server option.
+         */
+        int parseOption(String[] args, int i) {
+            if (args[i].equals("--no-gzip")) {
+                gzip = false;
+                return 1;
+            }
+            if (i + 1 >= args.length) {
+                return 0;
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--latency":
+                    latencyMs = Long.parseLong(value);
+                    break;
+                case "--jitter":
+                    jitterMs = Long.parseLong(value);
+                    break;
+                case "--error-rate":
+                    errorRate = Double.parseDouble(value);
+                    break;
+                case "--extra-variables":
+                    extraVariables = Integer.parseInt(value);
+                    break;
+                case "--recorded":
+                    recordedDir = Path.of(value);
+                    break;
+                default:
+                    return 0;
+            }
+            return 2;
+        }
+
+        @Override
+        public String toString() {
+            return "latency " + latencyMs + "+" + jitterMs + " ms, error rate " + errorRate
+                    + ", extra variables " + extraVariables + (gzip ? ", gzip" : "")
+                    + (recordedDir != null ? ", recorded " + recordedDir : "");
+        }
+    }
+}
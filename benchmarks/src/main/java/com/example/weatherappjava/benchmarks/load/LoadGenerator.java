@@ -0,0 +1,243 @@
+package com.example.weatherappjava.benchmarks.load;
+
+import com.example.weatherappjava.metrics.LatencyTimer;
+import com.example.weatherappjava.metrics.MetricsRegistry;
+import com.example.weatherappjava.model.LocationData;
+import com.example.weatherappjava.service.GeolocationService;
+import com.example.weatherappjava.service.HistoricalWeatherService;
+import com.example.weatherappjava.service.RedisCacheService;
+import com.example.weatherappjava.service.WeatherService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the service layer with N concurrent simulated users and reports throughput and latency
+ * percentiles per operation. Each user repeatedly picks an operation (forecast, archive or city
+ * lookup, weighted by --mix) for a random location out of a fixed set, so the cache hit ratio is
+ * governed by --locations and the run length. By default an embedded {@link FakeOpenMeteoServer}
+ * stands in for Open-Meteo; --target-url uses an already running one instead.
+ * <pre>
+ * LoadGenerator [--users N] [--duration S] [--warmup S] [--locations N] [--mix F,A,G]
+ *               [--forecast-days N] [--archive-days N] [--seed N] [--clear-cache]
+ *               [--target-url URL] [--latency MS] [--jitter MS] [--error-rate R]
+ *               [--extra-variables N] [--no-gzip] [--recorded DIR]
+ * </pre>
+ * Redis is used as configured (localhost:6379 by default); without it every lookup falls back to
+ * the in-process cache, which is reported under cache.* in the metrics snapshot.
+ */
+public class LoadGenerator {
+    private static final String[] OPERATIONS = {"forecast", "archive", "geocode"};
+
+    private int users = 16;
+    private int durationSeconds = 30;
+    private int warmupSeconds = 5;
+    private int locationCount = 200;
+    private int[] mix = {60, 30, 10};
+    private int forecastDays = 7;
+    private int archiveDays = 30;
+    private long seed = 42;
+    private boolean clearCache;
+    private String targetUrl;
+    private final FakeOpenMeteoServer.Settings serverSettings = new FakeOpenMeteoServer.Settings();
+
+    // Replaced after the warm-up so only the measured phase is reported
+    private volatile LatencyTimer[] timers = newTimers();
+
+    public static void main(String[] args) throws Exception {
+        LoadGenerator generator = new LoadGenerator();
+        try {
+            generator.parseArguments(args);
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.exit(64);
+            return;
+        }
+        generator.run();
+        System.exit(0);
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; ) {
+            int used = serverSettings.parseOption(args, i);
+            if (used > 0) {
+                i += used;
+                continue;
+            }
+            String arg = args[i];
+            if (arg.equals("--clear-cache")) {
+                clearCache = true;
+                i++;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[i + 1];
+            switch (arg) {
+                case "--users":
+                    users = Integer.parseInt(value);
+                    break;
+                case "--duration":
+                    durationSeconds = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmupSeconds = Integer.parseInt(value);
+                    break;
+                case "--locations":
+                    locationCount = Integer.parseInt(value);
+                    break;
+                case "--mix":
+                    String[] parts = value.split(",");
+                    if (parts.length != 3) {
+                        throw new IllegalArgumentException("--mix expects three weights: forecast,archive,geocode");
+                    }
+                    for (int k = 0; k < 3; k++) {
+                        mix[k] = Integer.parseInt(parts[k].trim());
+                    }
+                    break;
+                case "--forecast-days":
+                    forecastDays = Integer.parseInt(value);
+                    break;
+                case "--archive-days":
+                    archiveDays = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--target-url":
+                    targetUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+            i += 2;
+        }
+    }
+
+    private void run() throws Exception {
+        // Base URLs must be set before the service classes are initialised
+        FakeOpenMeteoServer server = null;
+        if (targetUrl == null) {
+            server = new FakeOpenMeteoServer(0, serverSettings);
+            server.installAsDefault();
+            System.out.println("Embedded fake Open-Meteo on " + server.getBaseUrl() + " (" + serverSettings + ")");
+        } else {
+            System.setProperty("weather.api.forecastUrl", targetUrl + "/v1/forecast");
+            System.setProperty("weather.api.archiveUrl", targetUrl + "/v1/archive");
+            System.setProperty("weather.api.geocodingUrl", targetUrl + "/v1/search");
+        }
+        if (clearCache) {
+            RedisCacheService.getInstance().clearCache();
+        }
+
+        List<LocationData> locations = new ArrayList<>(locationCount);
+        Random random = new Random(seed);
+        for (int i = 0; i < locationCount; i++) {
+            locations.add(new LocationData("Miasto-" + i, 49.0 + random.nextDouble() * 5.0, 14.5 + random.nextDouble() * 9.0));
+        }
+
+        System.out.println("Running " + users + " users for " + warmupSeconds + " s warm-up + " + durationSeconds
+                + " s over " + locationCount + " locations (mix forecast/archive/geocode " + mix[0] + "/" + mix[1]
+                + "/" + mix[2] + ")");
+
+        long now = System.nanoTime();
+        long measureStart = now + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        for (int u = 0; u < users; u++) {
+            long userSeed = seed * 31 + u;
+            pool.execute(() -> simulateUser(new Random(userSeed), locations, end));
+        }
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(measureStart - now));
+        timers = newTimers();
+        MetricsRegistry.getInstance().reset();
+        long serverRequestsAtStart = server != null ? server.getRequestCount() : 0;
+
+        pool.shutdown();
+        pool.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+        report(seconds);
+        if (server != null) {
+            System.out.printf(Locale.ROOT, "%nUpstream: %d requests (%.1f/s), %d simulated errors, %.1f MB sent%n",
+                    server.getRequestCount() - serverRequestsAtStart,
+                    (server.getRequestCount() - serverRequestsAtStart) / seconds,
+                    server.getErrorCount(), server.getBytesSent() / 1e6);
+        }
+        System.out.println();
+        System.out.print(MetricsRegistry.getInstance().dumpSnapshot());
+
+        RedisCacheService.getInstance().close();
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * One simulated user: issues requests back to back until the end of the run. Each user has
+     * its own service instances, as each window of the application does.
+     */
+    private void simulateUser(Random random, List<LocationData> locations, long end) {
+        WeatherService weatherService = new WeatherService();
+        HistoricalWeatherService historicalService = new HistoricalWeatherService();
+        GeolocationService geolocationService = new GeolocationService();
+        int totalWeight = mix[0] + mix[1] + mix[2];
+        LocalDate archiveEnd = LocalDate.now().minusDays(10);
+
+        while (System.nanoTime() < end) {
+            int pick = random.nextInt(Math.max(totalWeight, 1));
+            int operation = pick < mix[0] ? 0 : pick < mix[0] + mix[1] ? 1 : 2;
+            LocationData location = locations.get(random.nextInt(locations.size()));
+            LatencyTimer timer = timers[operation];
+
+            long start = System.nanoTime();
+            try {
+                switch (operation) {
+                    case 0:
+                        weatherService.getCurrentWeather(location, forecastDays);
+                        break;
+                    case 1:
+                        LocalDate last = archiveEnd.minusDays(random.nextInt(3 * 365));
+                        historicalService.getHistoricalWeather(location, last.minusDays(archiveDays - 1), last);
+                        break;
+                    default:
+                        geolocationService.getLocationByCity(location.getName());
+                }
+                timer.recordSince(start);
+            } catch (Exception e) {
+                timer.recordError(start);
+            }
+        }
+    }
+
+    private void report(double seconds) {
+        System.out.printf(Locale.ROOT, "%n%-10s %10s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "requests", "req/s", "errors", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        long total = 0;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            LatencyTimer t = timers[i];
+            total += t.getCount();
+            System.out.printf(Locale.ROOT, "%-10s %10d %10.1f %8d %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                    OPERATIONS[i], t.getCount(), t.getCount() / seconds, t.getErrorCount(), t.getMeanMillis(),
+                    t.getP50Millis(), t.getP95Millis(), t.getP99Millis(), t.getMaxMillis());
+        }
+        System.out.printf(Locale.ROOT, "%-10s %10d %10.1f%n", "total", total, total / seconds);
+    }
+
+    private static LatencyTimer[] newTimers() {
+        LatencyTimer[] timers = new LatencyTimer[OPERATIONS.length];
+        for (int i = 0; i < timers.length; i++) {
+            timers[i] = new LatencyTimer();
+        }
+        return timers;
+    }
+}
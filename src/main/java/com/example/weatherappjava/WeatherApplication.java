@@ -1,22 +1,104 @@
 package com.example.weatherappjava;
 
+import com.example.weatherappjava.controller.MainController;
 import com.example.weatherappjava.controller.MainControllerFactory;
+import com.example.weatherappjava.metrics.MetricsRegistry;
+import com.example.weatherappjava.service.ForecastRefresher;
+import com.example.weatherappjava.util.AppConfig;
+import com.example.weatherappjava.util.IoExecutor;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
- * Main class for the weather application.
+ * Main class for the weather application. Only the window is built on the JavaFX thread at
+ * startup; services (Redis pool, HTTP client, forecast refresher) are created on the I/O
+ * executor once the first frame is up.
  */
 public class WeatherApplication extends Application {
+    private static final Logger LOGGER = Logger.getLogger(WeatherApplication.class.getName());
+    // Exit as soon as the window is shown and the services are up (CDS training and startup timing)
+    private static final boolean TRAINING_RUN = AppConfig.getBoolean("weather.startup.trainingRun", false);
+    // Fallback origin for the startup time when the process start time is not available
+    private static final long CLASS_INIT_NANOS = System.nanoTime();
+
+    private volatile boolean refresherStarted;
+
     @Override
     public void start(Stage stage) throws IOException {
-        MainControllerFactory.createMainController(stage);
+        MainController mainController = MainControllerFactory.createMainController(stage);
+        Scene scene = stage.getScene();
+        scene.addPostLayoutPulseListener(new Runnable() {
+            private boolean done;
+
+            @Override
+            public void run() {
+                if (done) {
+                    return;
+                }
+                done = true;
+                // Listeners are being iterated; remove this one after the pulse
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+                long firstFrameMillis = millisSinceJvmStart();
+                LOGGER.info("First frame " + firstFrameMillis + " ms after JVM start");
+                IoExecutor.getInstance().execute(() -> warmUp(mainController, firstFrameMillis));
+            }
+        });
         stage.show();
     }
 
+    /**
+     * Runs on the I/O executor after the first frame: creates the services ahead of the first
+     * search and starts the forecast refresher.
+     */
+    private void warmUp(MainController mainController, long firstFrameMillis) {
+        long start = System.nanoTime();
+        try {
+            if (AppConfig.getBoolean("weather.startup.warmUp", true)) {
+                mainController.warmUpServices();
+            }
+            // Pre-warm and keep refreshing the forecasts of watched locations in the background
+            ForecastRefresher.getInstance().start();
+            refresherStarted = true;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Service warm-up failed", e);
+        }
+        MetricsRegistry.timer("startup.firstFrame").record(firstFrameMillis * 1_000_000L);
+        MetricsRegistry.timer("startup.warmUp").recordSince(start);
+        LOGGER.info("Services ready " + (System.nanoTime() - start) / 1_000_000 + " ms after first frame");
+
+        if (TRAINING_RUN) {
+            Platform.exit();
+        }
+    }
+
+    /**
+     * Returns the time since the JVM process started, or since this class was initialized if the
+     * process start time is not available.
+     */
+    private static long millisSinceJvmStart() {
+        Instant started = ProcessHandle.current().info().startInstant().orElse(null);
+        if (started == null) {
+            return (System.nanoTime() - CLASS_INIT_NANOS) / 1_000_000;
+        }
+        return Duration.between(started, Instant.now()).toMillis();
+    }
+
+    @Override
+    public void stop() {
+        if (refresherStarted) {
+            ForecastRefresher.getInstance().stop();
+        }
+    }
+
     public static void main(String[] args) {
         launch();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,399 @@
+package com.example.weatherappjava;
+
+import com.example.weatherappjava.metrics.MetricsRegistry;
+import com.example.weatherappjava.model.LocationData;
+import com.example.weatherappjava.model.TimeColumn;
+import com.example.weatherappjava.model.WeatherData;
+import com.example.weatherappjava.model.WeatherSeries;
+import com.example.weatherappjava.service.GeolocationService;
+import com.example.weatherappjava.service.HistoricalWeatherService;
+import com.example.weatherappjava.service.RedisCacheService;
+import com.example.weatherappjava.service.WeatherService;
+import com.example.weatherappjava.util.AppConfig;
+import com.example.weatherappjava.util.IoExecutor;
+import com.example.weatherappjava.util.JsonRecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless entry point for bulk weather retrieval. Reads cities or "lat,lon" coordinates from the
+ * command line or a file, runs the service layer concurrently without starting JavaFX, and writes
+ * one CSV row or JSON line per location and day to stdout or a file.
+ * <pre>
+ * WeatherCli (--forecast DAYS | --archive START END) [--format csv|jsonl] [--output FILE]
+ *            [--input FILE] [--series S,...] [--concurrency N] [--quiet] [--metrics] [LOCATION ...]
+ * </pre>
+ */
+public class WeatherCli {
+    private static final String USAGE = "Usage: WeatherCli (--forecast DAYS | --archive START END) [--format csv|jsonl]"
+            + " [--output FILE] [--input FILE] [--series S,...] [--concurrency N] [--quiet] [--metrics] [LOCATION ...]\n"
+            + "LOCATION is a city name or \"latitude,longitude\"; --input reads one location per line.\n"
+            + "--series (archive only) fills only the given columns: temperature, precipitation, wind_speed,\n"
+            + "pressure, soil_temperature.\n"
+            + "--metrics prints latency and cache statistics to stderr when done.";
+    private static final String[] COLUMNS = {
+            "location", "latitude", "longitude", "time", "temperature", "min_temperature", "max_temperature",
+            "precipitation", "wind_speed", "humidity", "pressure", "soil_temperature", "cached"
+    };
+
+    private int forecastDays;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private boolean jsonLines;
+    private Path output;
+    // Archive series to fill; null for all columns
+    private Set<WeatherSeries> series;
+    private int concurrency = AppConfig.getInt("weather.cli.concurrency", 8);
+    private boolean printMetrics;
+    private final List<String> locationArgs = new ArrayList<>();
+
+    // Created in run() so that option errors and --quiet take effect before any connection is made
+    private WeatherService weatherService;
+    private HistoricalWeatherService historicalWeatherService;
+    private GeolocationService geolocationService;
+
+    public static void main(String[] args) {
+        WeatherCli cli = new WeatherCli();
+        int status;
+        try {
+            cli.parseArguments(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(64);
+            return;
+        }
+
+        try {
+            status = cli.run();
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = 1;
+        } finally {
+            RedisCacheService.getInstance().close();
+        }
+        if (cli.printMetrics) {
+            System.err.print(MetricsRegistry.getInstance().dumpSnapshot());
+        }
+        System.exit(status);
+    }
+
+    /**
+     * Parses command line options; throws IllegalArgumentException on invalid input.
+     */
+    void parseArguments(String[] args) throws IOException {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--forecast":
+                    forecastDays = parseInt(value(args, ++i, arg), arg);
+                    break;
+                case "--archive":
+                    startDate = parseDate(value(args, ++i, arg));
+                    endDate = parseDate(value(args, ++i, arg));
+                    break;
+                case "--format":
+                    String format = value(args, ++i, arg);
+                    if (!format.equals("csv") && !format.equals("jsonl")) {
+                        throw new IllegalArgumentException("Unknown format: " + format);
+                    }
+                    jsonLines = format.equals("jsonl");
+                    break;
+                case "--output":
+                    output = Paths.get(value(args, ++i, arg));
+                    break;
+                case "--input":
+                    for (String line : Files.readAllLines(Paths.get(value(args, ++i, arg)), StandardCharsets.UTF_8)) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                            locationArgs.add(line);
+                        }
+                    }
+                    break;
+                case "--series":
+                    series = parseSeries(value(args, ++i, arg));
+                    break;
+                case "--concurrency":
+                    concurrency = Math.max(1, parseInt(value(args, ++i, arg), arg));
+                    break;
+                case "--quiet":
+                    Logger.getLogger("").setLevel(Level.WARNING);
+                    break;
+                case "--metrics":
+                    printMetrics = true;
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    locationArgs.add(arg);
+            }
+        }
+        if ((forecastDays > 0) == (startDate != null)) {
+            throw new IllegalArgumentException("Specify exactly one of --forecast or --archive.");
+        }
+        if (series != null && forecastDays > 0) {
+            throw new IllegalArgumentException("--series is only supported with --archive.");
+        }
+        if (locationArgs.isEmpty()) {
+            throw new IllegalArgumentException("No locations given.");
+        }
+    }
+
+    /**
+     * Resolves all locations, fetches their data in concurrent batches and writes the results in
+     * input order. Returns the process exit status (0, or 2 if some locations failed).
+     */
+    int run() throws IOException {
+        weatherService = new WeatherService();
+        historicalWeatherService = new HistoricalWeatherService();
+        geolocationService = new GeolocationService();
+        Semaphore permits = new Semaphore(concurrency);
+
+        // Resolve cities concurrently; coordinates need no lookup
+        List<Future<LocationData>> resolved = new ArrayList<>(locationArgs.size());
+        for (String arg : locationArgs) {
+            resolved.add(IoExecutor.getInstance().submit(() -> withPermit(permits, () -> resolve(arg))));
+        }
+
+        List<LocationData> locations = new ArrayList<>();
+        int failures = 0;
+        for (int i = 0; i < resolved.size(); i++) {
+            try {
+                locations.add(resolved.get(i).get());
+            } catch (ExecutionException e) {
+                System.err.println("Skipping " + locationArgs.get(i) + ": " + e.getCause().getMessage());
+                failures++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 1;
+            }
+        }
+
+        // Each batch becomes a few multi-location upstream requests; batches run concurrently
+        int batchSize = Math.max(1, AppConfig.getInt("weather.batch.maxLocations", 100));
+        List<List<LocationData>> batches = new ArrayList<>();
+        List<Future<List<WeatherData>>> results = new ArrayList<>();
+        for (int from = 0; from < locations.size(); from += batchSize) {
+            List<LocationData> batch = locations.subList(from, Math.min(from + batchSize, locations.size()));
+            batches.add(batch);
+            results.add(IoExecutor.getInstance().submit(() -> withPermit(permits, () -> fetch(batch))));
+        }
+
+        try (Writer writer = openOutput()) {
+            if (!jsonLines) {
+                writer.write(String.join(",", COLUMNS));
+                writer.write('\n');
+            }
+            for (int b = 0; b < batches.size(); b++) {
+                List<LocationData> batch = batches.get(b);
+                try {
+                    List<WeatherData> data = results.get(b).get();
+                    for (int i = 0; i < batch.size(); i++) {
+                        writeRows(writer, batch.get(i), data.get(i));
+                    }
+                    writer.flush();
+                } catch (ExecutionException e) {
+                    System.err.println("Failed to fetch " + batch.size() + " location(s): " + e.getCause().getMessage());
+                    failures += batch.size();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return 1;
+                }
+            }
+        }
+        return failures > 0 ? 2 : 0;
+    }
+
+    private LocationData resolve(String arg) throws IOException {
+        int comma = arg.indexOf(',');
+        if (comma > 0) {
+            try {
+                double latitude = Double.parseDouble(arg.substring(0, comma).trim());
+                double longitude = Double.parseDouble(arg.substring(comma + 1).trim());
+                if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                    throw new IOException("Coordinates out of range: " + arg);
+                }
+                return new LocationData(null, latitude, longitude);
+            } catch (NumberFormatException e) {
+                // Not coordinates; treat as a city name containing a comma
+            }
+        }
+        return geolocationService.getLocationByCity(arg);
+    }
+
+    private List<WeatherData> fetch(List<LocationData> batch) throws IOException {
+        if (forecastDays > 0) {
+            return weatherService.getCurrentWeather(batch, forecastDays);
+        }
+        if (series != null) {
+            return historicalWeatherService.getHistoricalSeries(batch, startDate, endDate, series);
+        }
+        return historicalWeatherService.getHistoricalWeather(batch, startDate, endDate);
+    }
+
+    /**
+     * Writes one row per data point; the "current" point of a forecast has the time "current".
+     */
+    private void writeRows(Writer writer, LocationData location, WeatherData data) throws IOException {
+        String name = location.getName() != null ? location.getName() : "";
+        TimeColumn times = data.getTimeData();
+        StringBuilder row = new StringBuilder(160);
+        for (int i = 0; i < times.size(); i++) {
+            boolean current = times.getEpochSecond(i) == TimeColumn.NO_TIME;
+            String time = current ? "current" : times.getDate(i).toString();
+            double humidity = current ? data.getHumidity() : data.getHumidityData().get(i);
+            Object[] values = {
+                    name, location.getLatitude(), location.getLongitude(), time, data.getAirTempData().get(i),
+                    data.getMinTempData().get(i), data.getMaxTempData().get(i), data.getRainData().get(i),
+                    data.getWindSpeedData().get(i), humidity, data.getPressureData().get(i),
+                    data.getSoilTempData().get(i), data.isFromCache()
+            };
+
+            row.setLength(0);
+            if (jsonLines) {
+                row.append('{');
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    if (c > 0) {
+                        row.append(',');
+                    }
+                    row.append('"').append(COLUMNS[c]).append("\":");
+                    appendJson(row, values[c]);
+                }
+                row.append('}');
+            } else {
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    if (c > 0) {
+                        row.append(',');
+                    }
+                    appendCsv(row, values[c]);
+                }
+            }
+            row.append('\n');
+            writer.write(row.toString());
+        }
+    }
+
+    private static void appendJson(StringBuilder out, Object value) {
+        if (value instanceof Double) {
+            double number = (Double) value;
+            out.append(Double.isNaN(number) ? "null" : JsonRecord.formatNumber(number));
+        } else if (value instanceof Boolean) {
+            out.append(value);
+        } else {
+            out.append('"');
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"' || c == '\\') {
+                    out.append('\\').append(c);
+                } else if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+            out.append('"');
+        }
+    }
+
+    private static void appendCsv(StringBuilder out, Object value) {
+        if (value instanceof Double) {
+            double number = (Double) value;
+            if (!Double.isNaN(number)) {
+                out.append(JsonRecord.formatNumber(number));
+            }
+        } else {
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+                out.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                out.append(text);
+            }
+        }
+    }
+
+    private Writer openOutput() throws IOException {
+        if (output == null) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush(); // keep stdout open
+                }
+            };
+        }
+        return Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+    }
+
+    private static <T> T withPermit(Semaphore permits, IoCall<T> call) throws Exception {
+        permits.acquire();
+        try {
+            return call.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoCall<T> {
+        T call() throws Exception;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int parseInt(String value, String option) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+        }
+    }
+
+    private static Set<WeatherSeries> parseSeries(String value) {
+        Set<WeatherSeries> result = EnumSet.noneOf(WeatherSeries.class);
+        for (String name : value.split(",")) {
+            WeatherSeries match = null;
+            for (WeatherSeries candidate : WeatherSeries.values()) {
+                if (candidate.getKey().equals(name.trim())) {
+                    match = candidate;
+                }
+            }
+            if (match == null) {
+                throw new IllegalArgumentException("Unknown series: " + name.trim());
+            }
+            result.add(match);
+        }
+        return result;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date (expected YYYY-MM-DD): " + value);
+        }
+    }
+}
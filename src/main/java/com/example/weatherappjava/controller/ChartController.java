@@ -1,36 +1,71 @@
 package com.example.weatherappjava.controller;
 
+import com.example.weatherappjava.metrics.MetricsRegistry;
+import com.example.weatherappjava.model.DoubleColumn;
+import com.example.weatherappjava.model.Downsampling;
+import com.example.weatherappjava.model.RangeAggregates;
+import com.example.weatherappjava.model.RangeStats;
+import com.example.weatherappjava.util.IoExecutor;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.input.ScrollEvent;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.Duration;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Controller for managing the line chart display and data export in the weather application.
  */
 public class ChartController {
+    private static final Logger LOGGER = Logger.getLogger(ChartController.class.getName());
+
     @FXML private LineChart<Number, Number> dataChart;
     @FXML private NumberAxis xAxis;
     @FXML private NumberAxis yAxis;
     @FXML private Label titleLabel;
+    @FXML private Label rangeStatsLabel;
     @FXML private Button exportButton;
 
-    // Data for chart and export
-    private List<Double> currentValues;
+    // Level of detail: about one plotted point per 2 px, symbols only for sparse series
+    private static final double PIXELS_PER_POINT = 2.0;
+    private static final int SYMBOL_LIMIT = 120;
+    private static final double ZOOM_STEP = 1.25;
+    private static final int MIN_VISIBLE_POINTS = 7;
+
+    // Data for chart and export (always full resolution)
+    private DoubleColumn currentValues;
     private List<String> currentLabels;
     private String chartTitle;
     private String yAxisLabel;
+    private RangeAggregates aggregates;
+
+    // Visible index range [visibleFrom, visibleTo) and the points currently plotted
+    private int visibleFrom;
+    private int visibleTo;
+    private int[] renderedIndices;
+    private final PauseTransition resampleDelay = new PauseTransition(Duration.millis(100));
 
     /**
      * Initializes the chart with basic settings.
@@ -39,32 +74,37 @@ public class ChartController {
         dataChart.setAnimated(false); // Disable animations for smoother updates
         dataChart.setCreateSymbols(true); // Show data points as symbols
         dataChart.setLegendVisible(false); // Hide legend as it's unnecessary
+
+        // Re-sample when the plot width changes (debounced, a window resize fires many events)
+        resampleDelay.setOnFinished(event -> renderVisibleRange());
+        xAxis.widthProperty().addListener((observable, oldWidth, newWidth) -> resampleDelay.playFromStart());
+
+        // Mouse wheel zooms the time axis around the cursor, double click shows the whole range
+        dataChart.setOnScroll(this::onChartScroll);
+        dataChart.setOnMouseClicked(event -> {
+            if (event.getClickCount() == 2) {
+                resetZoom();
+            }
+        });
     }
 
     /**
-     * Configures the chart with provided data, title, and axis labels.
+     * Configures the chart with provided data, title, and axis labels. Statistics of the visible
+     * range are read from the aggregate index (built here if null).
      */
-    public void setupChart(String title, String yAxisLabel, List<Double> values, List<String> labels) {
+    public void setupChart(String title, String yAxisLabel, DoubleColumn values, List<String> labels,
+                           RangeAggregates aggregates) {
         // Store data for export
         this.chartTitle = title;
         this.yAxisLabel = yAxisLabel;
         this.currentValues = values;
         this.currentLabels = labels;
+        this.aggregates = aggregates != null && aggregates.size() == values.size() ? aggregates : new RangeAggregates(values);
 
         // Update UI elements
         titleLabel.setText(title);
         yAxis.setLabel(yAxisLabel);
 
-        // Create and populate chart series
-        XYChart.Series<Number, Number> series = new XYChart.Series<>();
-        for (int i = 0; i < values.size(); i++) {
-            series.getData().add(new XYChart.Data<>(i, values.get(i)));
-        }
-
-        // Update chart with new data
-        dataChart.getData().clear();
-        dataChart.getData().add(series);
-
         // Format x-axis labels if provided
         if (labels != null && !labels.isEmpty()) {
             xAxis.setTickLabelFormatter(new NumberAxis.DefaultFormatter(xAxis) {
@@ -75,6 +115,98 @@ public class ChartController {
                 }
             });
         }
+        renderedIndices = null;
+        resetZoom();
+    }
+
+    /**
+     * Shows the whole series.
+     */
+    private void resetZoom() {
+        if (currentValues == null) {
+            return;
+        }
+        visibleFrom = 0;
+        visibleTo = currentValues.size();
+        xAxis.setAutoRanging(true);
+        renderVisibleRange();
+    }
+
+    /**
+     * Narrows or widens the visible index range around the point under the cursor.
+     */
+    private void onChartScroll(ScrollEvent event) {
+        if (currentValues == null || currentValues.size() < 2 || event.getDeltaY() == 0) {
+            return;
+        }
+        double factor = event.getDeltaY() > 0 ? 1 / ZOOM_STEP : ZOOM_STEP;
+        double anchor = xAxis.getValueForDisplay(xAxis.sceneToLocal(event.getSceneX(), event.getSceneY()).getX()).doubleValue();
+        anchor = Math.max(visibleFrom, Math.min(visibleTo - 1, anchor));
+
+        double width = Math.max(MIN_VISIBLE_POINTS, (visibleTo - visibleFrom) * factor);
+        double lower = anchor - (anchor - visibleFrom) * width / (visibleTo - visibleFrom);
+        int from = (int) Math.max(0, Math.floor(lower));
+        int to = (int) Math.min(currentValues.size(), Math.ceil(lower + width));
+        if (from == 0 && to == currentValues.size()) {
+            resetZoom();
+        } else if (from != visibleFrom || to != visibleTo) {
+            visibleFrom = from;
+            visibleTo = to;
+            xAxis.setAutoRanging(false);
+            xAxis.setLowerBound(from);
+            xAxis.setUpperBound(to - 1);
+            xAxis.setTickUnit(Math.max(1, (to - from) / 10.0));
+            renderVisibleRange();
+        }
+        event.consume();
+    }
+
+    /**
+     * Replaces the chart series with an LTTB-downsampled copy of the visible range, about one
+     * point per PIXELS_PER_POINT pixels of plot width. The full-resolution data is kept for export.
+     */
+    private void renderVisibleRange() {
+        if (currentValues == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        updateRangeStats();
+        double plotWidth = xAxis.getWidth() > 0 ? xAxis.getWidth() : dataChart.getPrefWidth();
+        int threshold = Math.max(3, (int) (plotWidth / PIXELS_PER_POINT));
+
+        // One extra point on each side so the line runs to the edges of a zoomed view
+        int[] indices = Downsampling.lttb(currentValues, visibleFrom - 1, visibleTo + 1, threshold);
+        if (Arrays.equals(indices, renderedIndices)) {
+            return;
+        }
+
+        List<XYChart.Data<Number, Number>> points = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            points.add(new XYChart.Data<>(index, currentValues.get(index)));
+        }
+        XYChart.Series<Number, Number> series = new XYChart.Series<>(FXCollections.observableList(points));
+
+        // Symbols only help while individual points can be told apart
+        dataChart.setCreateSymbols(indices.length <= SYMBOL_LIMIT);
+        dataChart.getData().setAll(List.of(series));
+        renderedIndices = indices;
+        MetricsRegistry.timer("ui.render.chart").recordSince(start);
+    }
+
+    /**
+     * Shows min/max/mean/sum of the visible range; answered from the aggregate index, so it stays
+     * instant while zooming over decades of data.
+     */
+    private void updateRangeStats() {
+        RangeStats stats = aggregates.query(visibleFrom, visibleTo);
+        if (stats.getCount() == 0) {
+            rangeStatsLabel.setText("No values in the visible range");
+            return;
+        }
+        String range = currentLabels != null && visibleTo > visibleFrom
+                ? currentLabels.get(visibleFrom) + " – " + currentLabels.get(visibleTo - 1) + ": " : "";
+        rangeStatsLabel.setText(range + String.format("min %.1f, max %.1f, mean %.1f, sum %.1f %s (%d values)",
+                stats.getMin(), stats.getMax(), stats.getMean(), stats.getSum(), yAxisLabel, stats.getCount()));
     }
 
     /**
@@ -111,20 +243,24 @@ public class ChartController {
         Stage stage = (Stage) dataChart.getScene().getWindow();
         File selectedFile = fileChooser.showSaveDialog(stage);
         if (selectedFile != null) {
-            exportDataToFile(selectedFile);
+            // Written on the I/O executor so large series do not block the UI
+            DoubleColumn values = currentValues;
+            List<String> labels = currentLabels;
+            IoExecutor.getInstance().execute(() -> exportDataToFile(selectedFile, values, labels));
         }
     }
 
     /**
-     * Exports chart data to a text file with metadata.
+     * Exports chart data to a text file with metadata. For several series in one file, CSV or
+     * binary, see WeatherExportService.
      */
-    private void exportDataToFile(File file) {
-        try (FileWriter writer = new FileWriter(file)) {
+    private void exportDataToFile(File file, DoubleColumn values, List<String> labels) {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
             // Write header information
             writer.write("# Chart data generated: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + "\n");
             writer.write("# Title: " + chartTitle + "\n");
             writer.write("# Unit: " + yAxisLabel + "\n");
-            writer.write("# Data points: " + currentValues.size() + "\n");
+            writer.write("# Data points: " + values.size() + "\n");
             writer.write("#\n");
 
             // Write column headers
@@ -132,8 +268,13 @@ public class ChartController {
             writer.write("# ----------------------------------\n");
 
             // Write data rows
-            for (int i = 0; i < currentValues.size(); i++) {
-                writer.write(i + "\t" + currentLabels.get(i) + "\t" + currentValues.get(i) + "\n");
+            for (int i = 0; i < values.size(); i++) {
+                writer.write(Integer.toString(i));
+                writer.write('\t');
+                writer.write(labels.get(i));
+                writer.write('\t');
+                writer.write(Double.toString(values.get(i)));
+                writer.write('\n');
             }
 
             // Write metadata for chart reconstruction
@@ -146,8 +287,24 @@ public class ChartController {
             writer.write("# END METADATA\n");
 
         } catch (IOException e) {
-            System.err.println("Error exporting chart data: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.log(Level.WARNING, "Error exporting chart data to " + file, e);
+            Platform.runLater(() -> showExportError(file, e));
+        }
+    }
+
+    /**
+     * Tells the user that a background export failed. Must be called on the JavaFX thread.
+     */
+    private void showExportError(File file, IOException e) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        // The chart window may have been closed while the file was being written
+        Window owner = dataChart.getScene() != null ? dataChart.getScene().getWindow() : null;
+        if (owner != null && owner.isShowing()) {
+            alert.initOwner(owner);
         }
+        alert.setTitle("Export failed");
+        alert.setHeaderText(null);
+        alert.setContentText("Could not save " + file.getName() + ": " + e.getMessage());
+        alert.show();
     }
 }
\ No newline at end of file
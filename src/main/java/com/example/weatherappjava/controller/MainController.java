@@ -1,6 +1,7 @@
 package com.example.weatherappjava.controller;
 
 import com.example.weatherappjava.model.WeatherData;
+import com.example.weatherappjava.model.WeatherSeries;
 import com.example.weatherappjava.service.GeolocationService;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -8,6 +9,7 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import java.time.LocalDate;
+import java.util.Collection;
 import javafx.scene.control.DateCell;
 
 /**
@@ -35,7 +37,7 @@ public class MainController {
     @FXML private Label humidityLabel;
     @FXML private Label pressureLabel;
     @FXML private Label updateTimeLabel;
-    @FXML private GridPane forecastGrid;
+    @FXML private TableView<Integer> dailyTable;
     @FXML private Label statusLabel;
     @FXML private GridPane weatherLabelsContainer;
 
@@ -54,9 +56,10 @@ public class MainController {
     @FXML private CheckBox airTempCheckBox;
     @FXML private CheckBox rainCheckBox;
     @FXML private CheckBox pressureCheckBox;
+    @FXML private Button exportButton;
 
-    // Service instances
-    private final GeolocationService geolocationService = new GeolocationService();
+    // Service instances, created on first use off the JavaFX thread
+    private GeolocationService geolocationService;
 
     // Delegated controllers
     private final WeatherSearchController searchController;
@@ -70,8 +73,8 @@ public class MainController {
      * Constructor initializing delegated controllers.
      */
     public MainController() {
-        this.searchController = new WeatherSearchController(this);
         this.displayController = new WeatherDisplayController(this);
+        this.searchController = new WeatherSearchController(this, displayController);
         this.visualizationController = new WeatherVisualizationController(this);
     }
 
@@ -115,6 +118,10 @@ public class MainController {
         visualizationController.setAirTempCheckBox(airTempCheckBox);
         visualizationController.setRainCheckBox(rainCheckBox);
         visualizationController.setPressureCheckBox(pressureCheckBox);
+        visualizationController.setExportButton(exportButton);
+
+        // Daily table is created once and reused for every search
+        displayController.setupDailyTable(dailyTable);
 
         // Add a listener to update UI components when data mode changes
         dataMode.selectedToggleProperty().addListener((observable, oldValue, newValue) -> {
@@ -180,6 +187,14 @@ public class MainController {
         visualizationController.onVisualizeButtonClick();
     }
 
+    /**
+     * Exports the selected series via visualization controller.
+     */
+    @FXML
+    protected void onExportButtonClick() {
+        visualizationController.onExportButtonClick();
+    }
+
     private void updateInputPanelVisibility() {
         boolean isCityMode = cityRadioButton.isSelected();
         cityInputPanel.setVisible(isCityMode);
@@ -199,6 +214,33 @@ public class MainController {
         historicalInputPanel.setManaged(!isForecastMode);
     }
 
+    /**
+     * Creates the services ahead of the first search, so it does not pay for connecting to Redis
+     * and loading the I/O stack. Blocking; call off the JavaFX thread.
+     */
+    public void warmUpServices() {
+        getGeolocationService();
+        searchController.warmUp();
+    }
+
+    /**
+     * Returns the geocoding service, creating it on first use. Called on I/O threads only.
+     */
+    public synchronized GeolocationService getGeolocationService() {
+        if (geolocationService == null) {
+            geolocationService = new GeolocationService();
+        }
+        return geolocationService;
+    }
+
+    /**
+     * Reads the given series missing from the displayed data via the search controller, then runs
+     * onLoaded on the JavaFX thread.
+     */
+    public void loadSeries(Collection<WeatherSeries> missing, Runnable onLoaded) {
+        searchController.loadSeries(missing, onLoaded);
+    }
+
     /**
      * Resets weather display elements to the default state.
      */
@@ -211,9 +253,10 @@ public class MainController {
         soilTemperatureLabel.setText("---");
         rainLabel.setText("---");
         updateTimeLabel.setText("---");
-        forecastGrid.getChildren().clear();
+        displayController.clearDailyTable();
         statusLabel.setText("");
-        weatherData.clearChartData();
+        // Replaced rather than cleared: open charts and running exports keep the previous data
+        weatherData = new WeatherData();
     }
 
     // Getters for delegated controllers
@@ -227,8 +270,6 @@ public class MainController {
     public Label getSoilTemperatureLabel() { return soilTemperatureLabel; }
     public Label getRainLabel() { return rainLabel; }
     public Label getUpdateTimeLabel() { return updateTimeLabel; }
-    public GridPane getForecastGrid() { return forecastGrid; }
-    public GeolocationService getGeolocationService() { return geolocationService; }
 
     // Getter and setter for shared weather data
     public WeatherData getWeatherData() { return weatherData; }
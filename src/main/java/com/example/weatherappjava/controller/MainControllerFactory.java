@@ -3,8 +3,6 @@ package com.example.weatherappjava.controller;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.control.CheckBox;
-import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 import java.io.IOException;
@@ -25,14 +23,7 @@ public class MainControllerFactory {
         // Get the MainController instance from the loader
         MainController mainController = loader.getController();
 
-        // Initialize WeatherVisualizationController and link UI elements
-        WeatherVisualizationController visualizationController = new WeatherVisualizationController(mainController);
-        visualizationController.setWindSpeedCheckBox((CheckBox) root.lookup("#windSpeedCheckBox"));
-        visualizationController.setSoilTempCheckBox((CheckBox) root.lookup("#soilTempCheckBox"));
-        visualizationController.setAirTempCheckBox((CheckBox) root.lookup("#airTempCheckBox"));
-        visualizationController.setRainCheckBox((CheckBox) root.lookup("#rainCheckBox"));
-        visualizationController.setPressureCheckBox((CheckBox) root.lookup("#pressureCheckBox"));
-        visualizationController.setChartOptionsPanel((VBox) root.lookup("#chartOptionsPanel"));
+        // Sub-controllers are created and wired by MainController.initialize()
 
         // Set up the scene and display the stage
         Scene scene = new Scene(root, 900, 700);
@@ -1,6 +1,23 @@
 package com.example.weatherappjava.controller;
 
+import com.example.weatherappjava.model.DoubleColumn;
+import com.example.weatherappjava.model.TimeColumn;
 import com.example.weatherappjava.model.WeatherData;
+import com.example.weatherappjava.util.DateFormatter;
+import com.example.weatherappjava.util.JsonRecord;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * Controller for displaying weather data in the UI.
@@ -8,6 +25,19 @@ import com.example.weatherappjava.model.WeatherData;
 public class WeatherDisplayController {
     private final MainController mainController;
 
+    // Daily table: row indices into tableData, shared by all searches
+    private final ObservableList<Integer> rows = FXCollections.observableArrayList();
+    private final TableColumn<Integer, Integer> dateColumn = new TableColumn<>("Data");
+    private final TableColumn<Integer, Number> minTempColumn = new TableColumn<>();
+    private final TableColumn<Integer, Number> maxTempColumn = new TableColumn<>();
+    private final TableColumn<Integer, Number> rainColumn = new TableColumn<>();
+    private final TableColumn<Integer, Number> windColumn = new TableColumn<>();
+    private final TableColumn<Integer, Number> humidityColumn = new TableColumn<>();
+    private final TableColumn<Integer, Number> soilTempColumn = new TableColumn<>();
+    private TableView<Integer> dailyTable;
+    private WeatherData tableData;
+    private boolean forecastDates = true;
+
     /**
      * Constructor linking to the main controller.
      */
@@ -79,4 +109,125 @@ public class WeatherDisplayController {
         mainController.getRainLabel().setText("N/A - Historical Mode");
         mainController.getUpdateTimeLabel().setText(weatherData.getTime());
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates the columns of the daily table. The table is virtualized: rows are indices into the
+     * displayed WeatherData, and cells are created only for the visible rows and read the model
+     * columns directly. Called once; the table is reused for every search.
+     */
+    public void setupDailyTable(TableView<Integer> table) {
+        this.dailyTable = table;
+        table.setItems(rows);
+        table.setPlaceholder(new Label("No weather data available"));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
+
+        // Rows are in chronological order, so the index itself sorts the date column
+        dateColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
+        dateColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Integer row, boolean empty) {
+                super.updateItem(row, empty);
+                setText(empty || row == null || tableData == null ? null : formatDate(row));
+            }
+        });
+
+        table.getColumns().setAll(List.of(
+                dateColumn,
+                valueColumn(minTempColumn, WeatherData::getMinTempData, "°C"),
+                valueColumn(maxTempColumn, WeatherData::getMaxTempData, "°C"),
+                valueColumn(rainColumn, WeatherData::getRainData, "mm"),
+                valueColumn(windColumn, WeatherData::getWindSpeedData, "km/h"),
+                valueColumn(humidityColumn, WeatherData::getHumidityData, "%"),
+                valueColumn(soilTempColumn, WeatherData::getSoilTempData, "°C")));
+    }
+
+    /**
+     * Displays the daily forecast (up to forecastDays rows) in the daily table.
+     */
+    public void displayForecastInTable(WeatherData weatherData, int forecastDays) {
+        setColumnTitles("Data", "Min. Temp.", "Max. Temp.", "Opady", "Wiatr", "Wilgotność");
+        soilTempColumn.setVisible(false);
+        forecastDates = true;
+
+        // Skip the "current" chart point
+        TimeColumn times = weatherData.getTimeData();
+        List<Integer> indices = new ArrayList<>(forecastDays);
+        for (int i = 0; i < times.size() && indices.size() < forecastDays; i++) {
+            if (times.getEpochSecond(i) != TimeColumn.NO_TIME) {
+                indices.add(i);
+            }
+        }
+        showRows(weatherData, indices);
+    }
+
+    /**
+     * Displays historical daily data in the daily table.
+     */
+    public void displayHistoricalDataInTable(WeatherData weatherData) {
+        setColumnTitles("Date", "Min Temp", "Max Temp", "Precipitation", "Wind Speed", "Humidity");
+        soilTempColumn.setText("Soil Temp");
+        soilTempColumn.setVisible(true);
+        forecastDates = false;
+
+        int size = weatherData.getTimeData().size();
+        List<Integer> indices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indices.add(i);
+        }
+        showRows(weatherData, indices);
+    }
+
+    /**
+     * Removes all rows from the daily table.
+     */
+    public void clearDailyTable() {
+        tableData = null;
+        rows.clear();
+    }
+
+    private void showRows(WeatherData weatherData, List<Integer> indices) {
+        tableData = weatherData;
+        dailyTable.getSortOrder().clear();
+        rows.setAll(indices);
+        dailyTable.scrollTo(0);
+    }
+
+    private void setColumnTitles(String date, String minTemp, String maxTemp, String rain, String wind, String humidity) {
+        dateColumn.setText(date);
+        minTempColumn.setText(minTemp);
+        maxTempColumn.setText(maxTemp);
+        rainColumn.setText(rain);
+        windColumn.setText(wind);
+        humidityColumn.setText(humidity);
+    }
+
+    /**
+     * Binds a table column to a model column; missing values sort last and are shown as "N/A".
+     */
+    private TableColumn<Integer, Number> valueColumn(TableColumn<Integer, Number> column,
+                                                     Function<WeatherData, DoubleColumn> source, String unit) {
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(
+                tableData == null ? Double.NaN : source.apply(tableData).get(cell.getValue())));
+        column.setComparator(Comparator.comparingDouble(Number::doubleValue));
+        column.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(Number value, boolean empty) {
+                super.updateItem(value, empty);
+                setText(empty || value == null ? null : formatValue(value.doubleValue(), unit));
+            }
+        });
+        return column;
+    }
+
+    private String formatDate(int row) {
+        TimeColumn times = tableData.getTimeData();
+        return forecastDates ? DateFormatter.formatDate(times.getDate(row)) : times.getLabel(row);
+    }
+
+    /**
+     * Formats a value with its unit, or "N/A" if the value is missing.
+     */
+    private static String formatValue(double value, String unit) {
+        return Double.isNaN(value) ? "N/A" : JsonRecord.formatNumber(value) + " " + unit;
+    }
+}
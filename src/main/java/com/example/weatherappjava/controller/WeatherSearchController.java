@@ -1,30 +1,79 @@
 package com.example.weatherappjava.controller;
 
+import com.example.weatherappjava.metrics.MetricsRegistry;
 import com.example.weatherappjava.model.LocationData;
 import com.example.weatherappjava.model.WeatherData;
+import com.example.weatherappjava.model.WeatherSeries;
 import com.example.weatherappjava.service.HistoricalWeatherService;
 import com.example.weatherappjava.service.WeatherService;
+import com.example.weatherappjava.util.IoExecutor;
+
+import javafx.application.Platform;
 
 import java.time.LocalDate;
-import java.util.concurrent.CompletableFuture;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Future;
 
 /**
  * Controller for handling weather data searches.
  */
 public class WeatherSearchController {
+    // Series behind the daily table columns; the others are read when a chart or export needs them
+    private static final Set<WeatherSeries> TABLE_SERIES = EnumSet.of(WeatherSeries.AIR_TEMPERATURE,
+            WeatherSeries.PRECIPITATION, WeatherSeries.WIND_SPEED, WeatherSeries.SOIL_TEMPERATURE);
+
     private final MainController mainController;
-    private final WeatherService weatherService;
-    private final HistoricalWeatherService historicalWeatherService;
     private final WeatherDisplayController displayController;
 
+    // Created on first use, off the JavaFX thread (they open the Redis pool and load the I/O stack)
+    private WeatherService weatherService;
+    private HistoricalWeatherService historicalWeatherService;
+
+    // Search in flight and a counter identifying the latest search (both used on the JavaFX thread only)
+    private Future<?> currentSearch;
+    private long searchGeneration;
+
+    // Query of the historical data on display (JavaFX thread only), to read series it lacks
+    private LocationData historicalLocation;
+    private LocalDate historicalStart;
+    private LocalDate historicalEnd;
+
     /**
-     * Constructor initializing services and display controller.
+     * Constructor; results are shown through the main controller's display controller.
      */
-    public WeatherSearchController(MainController mainController) {
+    public WeatherSearchController(MainController mainController, WeatherDisplayController displayController) {
         this.mainController = mainController;
-        this.weatherService = new WeatherService();
-        this.historicalWeatherService = new HistoricalWeatherService();
-        this.displayController = new WeatherDisplayController(mainController);
+        this.displayController = displayController;
+    }
+
+    /**
+     * Returns the forecast service, creating it on first use. Called on I/O threads only.
+     */
+    private synchronized WeatherService weatherService() {
+        if (weatherService == null) {
+            weatherService = new WeatherService();
+        }
+        return weatherService;
+    }
+
+    /**
+     * Returns the historical data service, creating it on first use. Called on I/O threads only.
+     */
+    private synchronized HistoricalWeatherService historicalWeatherService() {
+        if (historicalWeatherService == null) {
+            historicalWeatherService = new HistoricalWeatherService();
+        }
+        return historicalWeatherService;
+    }
+
+    /**
+     * Creates the services ahead of the first search. Blocking; call off the JavaFX thread.
+     */
+    public void warmUp() {
+        weatherService();
+        historicalWeatherService();
     }
 
     /**
@@ -78,40 +127,19 @@ public class WeatherSearchController {
      * Fetches weather data for a city using geolocation service.
      */
     private void getWeatherByCity(String city, int forecastDays) {
-        mainController.getStatusLabel().setText("Fetching weather data...");
-        mainController.getSearchButton().setDisable(true);
-
-        CompletableFuture.runAsync(() -> {
-            try {
-                LocationData location = mainController.getGeolocationService().getLocationByCity(city);
-                getWeatherByCoordinates(location, forecastDays);
-            } catch (Exception e) {
-                javafx.application.Platform.runLater(() -> {
-                    mainController.getStatusLabel().setText("Error: " + e.getMessage());
-                    mainController.getSearchButton().setDisable(false);
-                });
-            }
+        startSearch("Fetching weather data...", () -> {
+            LocationData location = mainController.getGeolocationService().getLocationByCity(city);
+            return fetchForecast(location, forecastDays);
         });
     }
 
-
     /**
      * Fetches historical weather data for a city.
      */
     private void getHistoricalWeatherByCity(String city, LocalDate startDate, LocalDate endDate) {
-        mainController.getStatusLabel().setText("Fetching historical weather data...");
-        mainController.getSearchButton().setDisable(true);
-
-        CompletableFuture.runAsync(() -> {
-            try {
-                LocationData location = mainController.getGeolocationService().getLocationByCity(city);
-                getHistoricalWeatherByCoordinates(location, startDate, endDate);
-            } catch (Exception e) {
-                javafx.application.Platform.runLater(() -> {
-                    mainController.getStatusLabel().setText("Error: " + e.getMessage());
-                    mainController.getSearchButton().setDisable(false);
-                });
-            }
+        startSearch("Fetching historical weather data...", () -> {
+            LocationData location = mainController.getGeolocationService().getLocationByCity(city);
+            return fetchHistorical(location, startDate, endDate);
         });
     }
 
@@ -119,66 +147,113 @@ public class WeatherSearchController {
      * Fetches current weather data for given coordinates and updates UI.
      */
     private void getWeatherByCoordinates(LocationData location, int forecastDays) {
-        if (!mainController.getSearchButton().isDisabled()) {
-            mainController.getStatusLabel().setText("Fetching weather data...");
-            mainController.getSearchButton().setDisable(true);
-        }
+        startSearch("Fetching weather data...", () -> fetchForecast(location, forecastDays));
+    }
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                WeatherData weatherData = weatherService.getCurrentWeather(location, forecastDays);
-                mainController.setWeatherData(weatherData);
+    /**
+     * Fetches historical weather data for given coordinates and updates UI.
+     */
+    private void getHistoricalWeatherByCoordinates(LocationData location, LocalDate startDate, LocalDate endDate) {
+        startSearch("Fetching historical weather data...", () -> fetchHistorical(location, startDate, endDate));
+    }
 
-                javafx.application.Platform.runLater(() -> {
-                    displayController.displayWeatherData(weatherData, location.toString());
-                    weatherService.displayForecastInGrid(mainController.getForecastGrid(), weatherData, forecastDays);
-                    mainController.getStatusLabel().setText("Weather data retrieved.");
-                    mainController.getSearchButton().setDisable(false);
-                });
-            } catch (Exception e) {
-                javafx.application.Platform.runLater(() -> {
-                    mainController.getStatusLabel().setText("Error: " + e.getMessage());
-                    mainController.getSearchButton().setDisable(false);
-                });
-            }
+    /**
+     * Loads forecast data (blocking) and returns the UI update that displays it.
+     */
+    private Runnable fetchForecast(LocationData location, int forecastDays) throws Exception {
+        WeatherData weatherData = weatherService().getCurrentWeather(location, forecastDays);
+        return () -> {
+            long start = System.nanoTime();
+            mainController.setWeatherData(weatherData);
+            displayController.displayWeatherData(weatherData, location.toString());
+            displayController.displayForecastInTable(weatherData, forecastDays);
+            mainController.getStatusLabel().setText("Weather data retrieved.");
+            MetricsRegistry.timer("ui.render.forecast").recordSince(start);
+        };
+    }
+
+    /**
+     * Loads historical data (blocking) and returns the UI update that displays it.
+     */
+    private Runnable fetchHistorical(LocationData location, LocalDate startDate, LocalDate endDate) throws Exception {
+        WeatherData weatherData = historicalWeatherService().getHistoricalSeries(location, startDate, endDate, TABLE_SERIES, true);
+        return () -> {
+            long start = System.nanoTime();
+            historicalLocation = location;
+            historicalStart = startDate;
+            historicalEnd = endDate;
+            mainController.setWeatherData(weatherData);
+            displayController.displayHistoricalWeatherData(weatherData, location.toString());
+            displayController.displayHistoricalDataInTable(weatherData);
+            mainController.getStatusLabel().setText("Historical weather data retrieved.");
+            MetricsRegistry.timer("ui.render.historical").recordSince(start);
+        };
+    }
+
+    /**
+     * Re-reads the historical data on display together with the given series it lacks, then shows
+     * it and runs onLoaded. Months already read come from the local archive store or the cache.
+     * Must be called on the JavaFX thread.
+     */
+    public void loadSeries(Collection<WeatherSeries> missing, Runnable onLoaded) {
+        LocationData location = historicalLocation;
+        LocalDate startDate = historicalStart;
+        LocalDate endDate = historicalEnd;
+        Set<WeatherSeries> series = EnumSet.copyOf(mainController.getWeatherData().getLoadedSeries());
+        series.addAll(missing);
+        startSearch("Fetching historical weather data...", () -> {
+            WeatherData weatherData = historicalWeatherService().getHistoricalSeries(location, startDate, endDate, series, true);
+            return () -> {
+                mainController.setWeatherData(weatherData);
+                displayController.displayHistoricalDataInTable(weatherData);
+                mainController.getStatusLabel().setText("Historical weather data retrieved.");
+                onLoaded.run();
+            };
         });
     }
 
     /**
-     * Fetches historical weather data for given coordinates and updates UI.
+     * Runs a search on the I/O executor. A new search cancels the one in flight, and results of a
+     * superseded search are never applied to the UI. Must be called on the JavaFX thread.
      */
-    private void getHistoricalWeatherByCoordinates(LocationData location, LocalDate startDate, LocalDate endDate) {
-        if (!mainController.getSearchButton().isDisabled()) {
-            mainController.getStatusLabel().setText("Fetching historical weather data...");
-            mainController.getSearchButton().setDisable(true);
+    private void startSearch(String statusText, SearchTask task) {
+        if (currentSearch != null) {
+            currentSearch.cancel(true);
         }
+        long generation = ++searchGeneration;
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                WeatherData weatherData = historicalWeatherService.getHistoricalWeather(location, startDate, endDate);
-                mainController.setWeatherData(weatherData);
+        mainController.getStatusLabel().setText(statusText);
+        mainController.getSearchButton().setDisable(true);
 
-                javafx.application.Platform.runLater(() -> {
-                    displayController.displayHistoricalWeatherData(weatherData, location.toString());
-                    historicalWeatherService.displayHistoricalDataInGrid(mainController.getForecastGrid(), weatherData);
-                    mainController.getStatusLabel().setText("Historical weather data retrieved.");
-                    mainController.getSearchButton().setDisable(false);
-                });
+        currentSearch = IoExecutor.getInstance().submit(() -> {
+            Runnable update;
+            try {
+                update = task.run();
             } catch (Exception e) {
-                javafx.application.Platform.runLater(() -> {
-                    mainController.getStatusLabel().setText("Error: " + e.getMessage());
-                    mainController.getSearchButton().setDisable(false);
-                });
+                update = () -> mainController.getStatusLabel().setText("Error: " + e.getMessage());
             }
+            Runnable apply = update;
+            Platform.runLater(() -> {
+                // Only the generation tells whether this search was superseded; the current one
+                // always re-enables the UI, even if it failed with an interruption
+                if (generation != searchGeneration) {
+                    return;
+                }
+                try {
+                    apply.run();
+                } finally {
+                    mainController.getSearchButton().setDisable(false);
+                    currentSearch = null;
+                }
+            });
         });
     }
 
     /**
-     * Returns the raw weather response from either forecast or historical service.
+     * Blocking part of a search; returns the UI update to run on the JavaFX thread.
      */
-    public String getRawWeatherResponse() {
-        String forecastResponse = weatherService.getRawWeatherResponse();
-        String historicalResponse = historicalWeatherService.getRawWeatherResponse();
-        return forecastResponse != null ? forecastResponse : historicalResponse;
+    @FunctionalInterface
+    private interface SearchTask {
+        Runnable run() throws Exception;
     }
 }
\ No newline at end of file
@@ -1,13 +1,26 @@
 package com.example.weatherappjava.controller;
 
+import com.example.weatherappjava.model.DoubleColumn;
+import com.example.weatherappjava.model.RangeAggregates;
 import com.example.weatherappjava.model.WeatherData;
+import com.example.weatherappjava.model.WeatherSeries;
+import com.example.weatherappjava.service.WeatherExportService;
+import com.example.weatherappjava.util.IoExecutor;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -21,6 +34,9 @@ public class WeatherVisualizationController {
     @FXML private CheckBox airTempCheckBox;
     @FXML private CheckBox rainCheckBox;
     @FXML private CheckBox pressureCheckBox;
+    private Button exportButton;
+
+    private final WeatherExportService exportService = new WeatherExportService();
 
     /**
      * Constructor linking to the main controller.
@@ -34,14 +50,8 @@ public class WeatherVisualizationController {
      */
     @FXML
     public void onVisualizeButtonClick() {
-        // Check if any data type is selected
-        boolean anySelected = windSpeedCheckBox.isSelected() ||
-                soilTempCheckBox.isSelected() ||
-                airTempCheckBox.isSelected() ||
-                rainCheckBox.isSelected() ||
-                pressureCheckBox.isSelected();
-
-        if (!anySelected) {
+        List<WeatherSeries> selected = selectedSeries();
+        if (selected.isEmpty()) {
             mainController.getStatusLabel().setText("Select at least one data type for visualization.");
             return;
         }
@@ -52,37 +62,129 @@ public class WeatherVisualizationController {
             return;
         }
 
-        WeatherData weatherData = mainController.getWeatherData();
+        if (loadMissingSeries(selected, this::onVisualizeButtonClick)) {
+            return;
+        }
 
         // Open chart windows for selected data types
+        WeatherData weatherData = mainController.getWeatherData();
+        for (WeatherSeries series : selected) {
+            openChartWindow(series.getTitle(), series.getUnit(), series.column(weatherData), weatherData.getTimeLabels(),
+                    weatherData.getAggregates(series));
+        }
+    }
+
+    /**
+     * Exports all selected series into one CSV or binary file. The file is written on the I/O
+     * executor while the status label shows the progress.
+     */
+    public void onExportButtonClick() {
+        List<WeatherSeries> selected = selectedSeries();
+        Label status = mainController.getStatusLabel();
+        if (selected.isEmpty()) {
+            status.setText("Select at least one data type to export.");
+            return;
+        }
+        if (!weatherDataHasData()) {
+            status.setText("No data to export. Fetch weather data first.");
+            return;
+        }
+        if (loadMissingSeries(selected, this::onExportButtonClick)) {
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Weather Data");
+        FileChooser.ExtensionFilter csvFilter = new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv");
+        FileChooser.ExtensionFilter binaryFilter = new FileChooser.ExtensionFilter("Binary columnar (*.wxc)", "*.wxc");
+        fileChooser.getExtensionFilters().addAll(csvFilter, binaryFilter);
+        fileChooser.setInitialFileName("weather_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
+        File file = fileChooser.showSaveDialog(status.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        WeatherExportService.Format format = fileChooser.getSelectedExtensionFilter() == binaryFilter
+                || file.getName().endsWith(".wxc") ? WeatherExportService.Format.BINARY : WeatherExportService.Format.CSV;
+
+        // A new search replaces the WeatherData object, so this one stays unchanged while exporting
+        WeatherData weatherData = mainController.getWeatherData();
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                exportService.export(weatherData, selected, file.toPath(), format, fraction -> updateProgress(fraction, 1.0));
+                return null;
+            }
+        };
+        task.progressProperty().addListener((observable, oldValue, newValue) ->
+                status.setText(String.format("Exporting... %.0f%%", Math.max(0, newValue.doubleValue()) * 100)));
+        task.setOnSucceeded(event -> {
+            status.setText("Exported " + selected.size() + " series to " + file.getName());
+            exportButton.setDisable(false);
+        });
+        task.setOnFailed(event -> {
+            status.setText("Export failed: " + task.getException().getMessage());
+            exportButton.setDisable(false);
+        });
+
+        exportButton.setDisable(true);
+        IoExecutor.getInstance().execute(task);
+    }
+
+    /**
+     * Returns the series whose check boxes are selected, in display order.
+     */
+    private List<WeatherSeries> selectedSeries() {
+        List<WeatherSeries> selected = new ArrayList<>();
         if (windSpeedCheckBox.isSelected()) {
-            openChartWindow("Wind Speed", "km/h", weatherData.getWindSpeedData(), weatherData.getTimeLabels());
+            selected.add(WeatherSeries.WIND_SPEED);
         }
         if (soilTempCheckBox.isSelected()) {
-            openChartWindow("Soil Temperature", "°C", weatherData.getSoilTempData(), weatherData.getTimeLabels());
+            selected.add(WeatherSeries.SOIL_TEMPERATURE);
         }
         if (airTempCheckBox.isSelected()) {
-            openChartWindow("Air Temperature", "°C", weatherData.getAirTempData(), weatherData.getTimeLabels());
+            selected.add(WeatherSeries.AIR_TEMPERATURE);
         }
         if (rainCheckBox.isSelected()) {
-            openChartWindow("Precipitation", "mm", weatherData.getRainData(), weatherData.getTimeLabels());
+            selected.add(WeatherSeries.PRECIPITATION);
         }
         if (pressureCheckBox.isSelected()) {
-            openChartWindow("Pressure", "hPa", weatherData.getPressureData(), weatherData.getTimeLabels());
+            selected.add(WeatherSeries.PRESSURE);
+        }
+        return selected;
+    }
+
+    /**
+     * Starts reading the selected series the displayed data lacks (historical searches load only
+     * the table columns) and returns true; retry runs once they are loaded. Returns false if
+     * nothing is missing.
+     */
+    private boolean loadMissingSeries(List<WeatherSeries> selected, Runnable retry) {
+        WeatherData weatherData = mainController.getWeatherData();
+        List<WeatherSeries> missing = new ArrayList<>();
+        for (WeatherSeries series : selected) {
+            if (!weatherData.hasSeries(series)) {
+                missing.add(series);
+            }
+        }
+        if (missing.isEmpty()) {
+            return false;
         }
+        mainController.loadSeries(missing, retry);
+        return true;
     }
 
     /**
      * Opens a new window with a chart for the specified data.
      */
-    private void openChartWindow(String title, String yAxisLabel, List<Double> data, List<String> labels) {
+    private void openChartWindow(String title, String yAxisLabel, DoubleColumn data, List<String> labels,
+                                 RangeAggregates aggregates) {
         try {
             // Load chart FXML and set up controller
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/weatherappjava/chart-view.fxml"));
             Scene scene = new Scene(loader.load(), 800, 600);
 
             ChartController chartController = loader.getController();
-            chartController.setupChart(title, yAxisLabel, data, labels);
+            chartController.setupChart(title, yAxisLabel, data, labels, aggregates);
             chartController.setWindowTitle(title);
 
             // Display the chart in a new window
@@ -100,7 +202,7 @@ public class WeatherVisualizationController {
      * Checks if weather data is available for visualization.
      */
     private boolean weatherDataHasData() {
-        return !mainController.getWeatherData().getTimeLabels().isEmpty();
+        return mainController.getWeatherData().getChartDataSize() > 0;
     }
 
     // Setters for UI elements, configured during FXML initialization
@@ -109,6 +211,7 @@ public class WeatherVisualizationController {
     public void setAirTempCheckBox(CheckBox checkBox) { this.airTempCheckBox = checkBox; }
     public void setRainCheckBox(CheckBox checkBox) { this.rainCheckBox = checkBox; }
     public void setPressureCheckBox(CheckBox checkBox) { this.pressureCheckBox = checkBox; }
+    public void setExportButton(Button button) { this.exportButton = button; }
     public void setChartOptionsPanel(VBox panel) { // UI elements for chart options
     }
 }
\ No newline at end of file
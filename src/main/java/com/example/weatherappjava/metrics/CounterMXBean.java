@@ -0,0 +1,8 @@
+package com.example.weatherappjava.metrics;
+
+/**
+ * JMX view of a {@link Counter}.
+ */
+public interface CounterMXBean {
+    long getCount();
+}
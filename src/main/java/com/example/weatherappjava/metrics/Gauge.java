@@ -0,0 +1,35 @@
+package com.example.weatherappjava.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Current level of something that goes up and down, such as requests in flight. Also keeps the
+ * highest value seen since the last reset.
+ */
+public class Gauge implements GaugeMXBean {
+    private final AtomicLong value = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    public void increment() {
+        long current = value.incrementAndGet();
+        maxValue.accumulateAndGet(current, Math::max);
+    }
+
+    public void decrement() {
+        value.decrementAndGet();
+    }
+
+    @Override
+    public long getValue() {
+        return value.get();
+    }
+
+    @Override
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    void reset() {
+        maxValue.set(value.get());
+    }
+}
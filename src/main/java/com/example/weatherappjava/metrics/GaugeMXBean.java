@@ -0,0 +1,10 @@
+package com.example.weatherappjava.metrics;
+
+/**
+ * JMX view of a {@link Gauge}.
+ */
+public interface GaugeMXBean {
+    long getValue();
+
+    long getMaxValue();
+}
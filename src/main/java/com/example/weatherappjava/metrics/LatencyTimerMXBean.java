@@ -0,0 +1,20 @@
+package com.example.weatherappjava.metrics;
+
+/**
+ * JMX view of a {@link LatencyTimer}. Durations are in milliseconds.
+ */
+public interface LatencyTimerMXBean {
+    long getCount();
+
+    long getErrorCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+}
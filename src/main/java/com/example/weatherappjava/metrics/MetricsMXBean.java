@@ -0,0 +1,16 @@
+package com.example.weatherappjava.metrics;
+
+/**
+ * JMX operations of the {@link MetricsRegistry}.
+ */
+public interface MetricsMXBean {
+    /**
+     * Returns a text snapshot of all metrics.
+     */
+    String dumpSnapshot();
+
+    /**
+     * Resets all timers, counters and gauge maxima.
+     */
+    void reset();
+}
@@ -0,0 +1,123 @@
+package com.example.weatherappjava.metrics;
+
+import com.example.weatherappjava.util.AppConfig;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide registry of latency timers, counters and gauges. Every metric is registered as an
+ * MXBean under the com.example.weatherappjava domain (visible in JConsole or VisualVM) unless
+ * weather.metrics.jmx is false, and {@link #dumpSnapshot()} renders all of them as text.
+ *
+ * <p>Names are dotted: http.&lt;endpoint&gt;, redis.&lt;operation&gt;, parse.&lt;section&gt;,
+ * ui.render.&lt;view&gt;, cache.&lt;namespace&gt;.hit|miss|stale and *.inflight.
+ */
+public class MetricsRegistry implements MetricsMXBean {
+    private static final Logger LOGGER = Logger.getLogger(MetricsRegistry.class.getName());
+    private static final String DOMAIN = "com.example.weatherappjava";
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final boolean jmxEnabled = AppConfig.getBoolean("weather.metrics.jmx", true);
+    private final Map<String, LatencyTimer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+        register("Metrics", "registry", this);
+        if (AppConfig.getBoolean("weather.metrics.dumpOnExit", false)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(dumpSnapshot()), "metrics-dump"));
+        }
+    }
+
+    /**
+     * Returns the shared registry.
+     */
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Shortcut for {@code getInstance().timer(name)}.
+     */
+    public static LatencyTimer timer(String name) {
+        return INSTANCE.getOrCreate(INSTANCE.timers, name, "Timer", n -> new LatencyTimer());
+    }
+
+    /**
+     * Shortcut for {@code getInstance().counter(name)}.
+     */
+    public static Counter counter(String name) {
+        return INSTANCE.getOrCreate(INSTANCE.counters, name, "Counter", n -> new Counter());
+    }
+
+    /**
+     * Shortcut for {@code getInstance().gauge(name)}.
+     */
+    public static Gauge gauge(String name) {
+        return INSTANCE.getOrCreate(INSTANCE.gauges, name, "Gauge", n -> new Gauge());
+    }
+
+    @Override
+    public String dumpSnapshot() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, LatencyTimer> entry : new TreeMap<>(timers).entrySet()) {
+            LatencyTimer t = entry.getValue();
+            out.append(String.format(Locale.ROOT,
+                    "timer   %-28s count=%d errors=%d mean=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms%n",
+                    entry.getKey(), t.getCount(), t.getErrorCount(), t.getMeanMillis(),
+                    t.getP50Millis(), t.getP95Millis(), t.getP99Millis(), t.getMaxMillis()));
+        }
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            out.append(String.format(Locale.ROOT, "counter %-28s %d%n", entry.getKey(), entry.getValue().getCount()));
+        }
+        for (Map.Entry<String, Gauge> entry : new TreeMap<>(gauges).entrySet()) {
+            Gauge g = entry.getValue();
+            out.append(String.format(Locale.ROOT, "gauge   %-28s %d (max %d)%n", entry.getKey(), g.getValue(), g.getMaxValue()));
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void reset() {
+        timers.values().forEach(LatencyTimer::reset);
+        counters.values().forEach(Counter::reset);
+        gauges.values().forEach(Gauge::reset);
+    }
+
+    private <T> T getOrCreate(Map<String, T> metrics, String name, String type, Function<String, T> factory) {
+        T metric = metrics.get(name);
+        if (metric != null) {
+            return metric;
+        }
+        return metrics.computeIfAbsent(name, n -> {
+            T created = factory.apply(n);
+            register(type, n, created);
+            return created;
+        });
+    }
+
+    private void register(String type, String name, Object mbean) {
+        if (!jmxEnabled) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException | RuntimeException e) {
+            // Metrics stay available through dumpSnapshot() even if JMX registration fails
+            LOGGER.fine("Cannot register MBean " + name + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.weatherappjava.model;
+
+import java.util.Arrays;
+
+/**
+ * Growable column of primitive doubles used for chart series. Missing values are stored as NaN.
+ * Reading is public; only classes in the model package can modify the column.
+ */
+public class DoubleColumn {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the number of values in the column.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the column has no values.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value at the given index (NaN if missing).
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns true if the value at the given index is missing.
+     */
+    public boolean isMissing(int index) {
+        return Double.isNaN(get(index));
+    }
+
+    /**
+     * Returns a copy of the values.
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Appends a value; use NaN for a missing sample.
+     */
+    void add(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1));
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Pre-sizes the column for an expected number of values.
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, capacity);
+        }
+    }
+
+    /**
+     * Removes all values while keeping the allocated storage.
+     */
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.weatherappjava.model;
+
+import java.util.Arrays;
+
+/**
+ * Level-of-detail reduction of series for display. Uses Largest-Triangle-Three-Buckets (LTTB),
+ * which keeps the visual shape of a line, including its peaks and dips, with a fraction of the
+ * points.
+ */
+public class Downsampling {
+    private Downsampling() {
+    }
+
+    /**
+     * Selects at most {@code threshold} points of values[from, to) with LTTB and returns their
+     * indices in ascending order. Missing (NaN) values are skipped; the first and last present
+     * values are always kept. When the range holds no more than threshold values (or threshold
+     * is below 3), all present indices are returned.
+     */
+    public static int[] lttb(DoubleColumn values, int from, int to, int threshold) {
+        from = Math.max(0, from);
+        to = Math.min(values.size(), to);
+
+        // Present points of the range; x is the index itself
+        int[] present = new int[Math.max(0, to - from)];
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            if (!values.isMissing(i)) {
+                present[n++] = i;
+            }
+        }
+        if (threshold < 3 || n <= threshold) {
+            return Arrays.copyOf(present, n);
+        }
+
+        int[] sampled = new int[threshold];
+        int count = 0;
+        sampled[count++] = present[0];
+
+        // The first and last points take a bucket each; the rest are split evenly
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket is the third vertex of the triangle
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                avgX += present[j];
+                avgY += values.get(present[j]);
+            }
+            int nextCount = Math.max(nextEnd - nextStart, 1);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // Keep the point of the current bucket that forms the largest triangle with the
+            // previously kept point and the next bucket's average
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double ax = present[a];
+            double ay = values.get(present[a]);
+            double maxArea = -1;
+            int chosen = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((ax - avgX) * (values.get(present[j]) - ay)
+                        - (ax - present[j]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            sampled[count++] = present[chosen];
+            a = chosen;
+        }
+
+        sampled[count++] = present[n - 1];
+        return Arrays.copyOf(sampled, count);
+    }
+}
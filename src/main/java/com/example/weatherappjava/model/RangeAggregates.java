@@ -0,0 +1,90 @@
+package com.example.weatherappjava.model;
+
+import java.util.Arrays;
+
+/**
+ * Segment tree over one series answering min, max, sum and count of present values for any
+ * index range in O(log n), so statistics of a selected window need not re-scan the series. Built
+ * once in O(n) from a snapshot of the column; later changes to the column are not reflected.
+ * <p>
+ * The tree is stored bottom-up in flat arrays: leaves at [n, 2n), node i combines 2i and 2i+1.
+ */
+public class RangeAggregates {
+    private final int size;
+    private final double[] min;
+    private final double[] max;
+    private final double[] sum;
+    private final int[] count;
+
+    /**
+     * Builds the index over the current values of the column.
+     */
+    public RangeAggregates(DoubleColumn values) {
+        size = values.size();
+        min = new double[2 * size];
+        max = new double[2 * size];
+        sum = new double[2 * size];
+        count = new int[2 * size];
+
+        // Missing values are neutral elements, so they drop out of every aggregate
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < size; i++) {
+            double value = values.get(i);
+            if (!Double.isNaN(value)) {
+                int leaf = size + i;
+                min[leaf] = value;
+                max[leaf] = value;
+                sum[leaf] = value;
+                count[leaf] = 1;
+            }
+        }
+        for (int node = size - 1; node > 0; node--) {
+            int left = 2 * node;
+            int right = left + 1;
+            min[node] = Math.min(min[left], min[right]);
+            max[node] = Math.max(max[left], max[right]);
+            sum[node] = sum[left] + sum[right];
+            count[node] = count[left] + count[right];
+        }
+    }
+
+    /**
+     * Returns the number of values the index was built over.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the aggregates of values[from, to). The range is clamped to the series.
+     */
+    public RangeStats query(int from, int to) {
+        double rangeMin = Double.POSITIVE_INFINITY;
+        double rangeMax = Double.NEGATIVE_INFINITY;
+        double rangeSum = 0;
+        int rangeCount = 0;
+
+        int left = Math.max(0, from) + size;
+        int right = Math.min(size, to) + size;
+        while (left < right) {
+            if ((left & 1) == 1) {
+                rangeMin = Math.min(rangeMin, min[left]);
+                rangeMax = Math.max(rangeMax, max[left]);
+                rangeSum += sum[left];
+                rangeCount += count[left];
+                left++;
+            }
+            if ((right & 1) == 1) {
+                right--;
+                rangeMin = Math.min(rangeMin, min[right]);
+                rangeMax = Math.max(rangeMax, max[right]);
+                rangeSum += sum[right];
+                rangeCount += count[right];
+            }
+            left >>= 1;
+            right >>= 1;
+        }
+        return new RangeStats(rangeMin, rangeMax, rangeSum, rangeCount);
+    }
+}
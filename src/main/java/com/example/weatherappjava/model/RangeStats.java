@@ -0,0 +1,45 @@
+package com.example.weatherappjava.model;
+
+/**
+ * Aggregates of one series over an index range, as answered by {@link RangeAggregates}. Missing
+ * (NaN) values are not counted; min, max and mean are NaN when the range has no values.
+ */
+public class RangeStats {
+    private final double min;
+    private final double max;
+    private final double sum;
+    private final int count;
+
+    public RangeStats(double min, double max, double sum, int count) {
+        this.min = count > 0 ? min : Double.NaN;
+        this.max = count > 0 ? max : Double.NaN;
+        this.sum = sum;
+        this.count = count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the sum of the present values (0 for an empty range).
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the number of present (non-NaN) values.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+}
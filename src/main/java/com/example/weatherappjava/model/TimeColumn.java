@@ -0,0 +1,207 @@
+package com.example.weatherappjava.model;
+
+import com.example.weatherappjava.util.DateFormatter;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Compact time column for chart series. Timestamps are stored as local epoch seconds in a
+ * primitive array; the few rows that carry a free-text label (e.g. "Aktualne") are kept aside.
+ * Display labels are formatted on demand.
+ */
+public class TimeColumn {
+    /** Marker for rows without a timestamp. */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int size;
+    private final Map<Integer, String> customLabels = new HashMap<>();
+    private final List<String> labelView = new LabelView();
+
+    /**
+     * Returns the number of rows in the column.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the local epoch second of a row, or {@link #NO_TIME} if the row has only a label.
+     */
+    public long getEpochSecond(int index) {
+        checkIndex(index);
+        return times[index];
+    }
+
+    /**
+     * Returns the date of a row, or null if the row has only a label.
+     */
+    public LocalDate getDate(int index) {
+        long time = getEpochSecond(index);
+        return time == NO_TIME ? null : LocalDate.ofEpochDay(Math.floorDiv(time, SECONDS_PER_DAY));
+    }
+
+    /**
+     * Returns the display label of a row (DD.MM.YYYY, with HH:MM for sub-daily rows).
+     */
+    public String getLabel(int index) {
+        checkIndex(index);
+        String custom = customLabels.get(index);
+        if (custom != null) {
+            return custom;
+        }
+        long time = times[index];
+        if (time == NO_TIME) {
+            return "";
+        }
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(time, 0, ZoneOffset.UTC);
+        String date = DateFormatter.formatDate(dateTime.toLocalDate());
+        if (dateTime.getHour() == 0 && dateTime.getMinute() == 0) {
+            return date;
+        }
+        return date + " " + pad2(dateTime.getHour()) + ":" + pad2(dateTime.getMinute());
+    }
+
+    /**
+     * Returns the index of the first row at or after the start of the given day, or size() if
+     * there is none. Rows must be in ascending time order; label-only rows sort first.
+     */
+    public int indexOf(LocalDate date) {
+        long time = date.toEpochDay() * SECONDS_PER_DAY;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns a read-only list view of the display labels.
+     */
+    public List<String> labels() {
+        return labelView;
+    }
+
+    /**
+     * Appends a row from an API timestamp (YYYY-MM-DD or YYYY-MM-DDTHH:MM). Unparseable
+     * timestamps are kept as free-text labels.
+     */
+    void add(String apiTime) {
+        long time = parseApiTime(apiTime);
+        if (time == NO_TIME && apiTime != null && !apiTime.isEmpty()) {
+            addLabel(apiTime);
+        } else {
+            append(time);
+        }
+    }
+
+    /**
+     * Appends a row carrying only a free-text label.
+     */
+    void addLabel(String label) {
+        customLabels.put(size, label);
+        append(NO_TIME);
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > times.length) {
+            times = Arrays.copyOf(times, capacity);
+        }
+    }
+
+    void clear() {
+        size = 0;
+        customLabels.clear();
+    }
+
+    private void append(long time) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size + (size >> 1));
+        }
+        times[size++] = time;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * Parses YYYY-MM-DD[THH:MM] without allocating, returning {@link #NO_TIME} on malformed input.
+     */
+    static long parseApiTime(String text) {
+        if (text == null || text.length() < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return NO_TIME;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return NO_TIME;
+        }
+        int hour = 0;
+        int minute = 0;
+        if (text.length() >= 16 && text.charAt(10) == 'T' && text.charAt(13) == ':') {
+            hour = digits(text, 11, 13);
+            minute = digits(text, 14, 16);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+                return NO_TIME;
+            }
+        }
+        try {
+            return LocalDate.of(year, month, day).toEpochDay() * SECONDS_PER_DAY + hour * 3600L + minute * 60L;
+        } catch (DateTimeException e) {
+            return NO_TIME;
+        }
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static String pad2(int value) {
+        return value < 10 ? "0" + value : Integer.toString(value);
+    }
+
+    /**
+     * Read-only list of labels formatted on access.
+     */
+    private class LabelView extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(int index) {
+            return getLabel(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.example.weatherappjava.model;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Model class representing weather data for display and visualization.
@@ -15,14 +21,28 @@ public class WeatherData {
     private double soilTemperature;
     private double precipitation;
     private String time;
+    // Where the data came from; the time label only shows it in text
+    private boolean fromCache;
+    private boolean stale;
 
-    // Chart data lists (immutable references)
-    private final List<Double> windSpeedData = new ArrayList<>();
-    private final List<Double> soilTempData = new ArrayList<>();
-    private final List<Double> airTempData = new ArrayList<>();
-    private final List<Double> rainData = new ArrayList<>();
-    private final List<Double> pressureData = new ArrayList<>();
-    private final List<String> timeLabels = new ArrayList<>();
+    // Chart data columns (primitive storage, NaN marks missing values)
+    private final DoubleColumn windSpeedData = new DoubleColumn();
+    private final DoubleColumn soilTempData = new DoubleColumn();
+    private final DoubleColumn airTempData = new DoubleColumn();
+    private final DoubleColumn rainData = new DoubleColumn();
+    private final DoubleColumn pressureData = new DoubleColumn();
+    private final TimeColumn timeData = new TimeColumn();
+
+    // Daily table columns aligned with the chart data (NaN for rows without daily values)
+    private final DoubleColumn minTempData = new DoubleColumn();
+    private final DoubleColumn maxTempData = new DoubleColumn();
+    private final DoubleColumn humidityData = new DoubleColumn();
+
+    // Series the service filled; a partial historical read leaves the other columns NaN
+    private final Set<WeatherSeries> loadedSeries = EnumSet.allOf(WeatherSeries.class);
+
+    // Range-aggregate index per series, rebuilt when its column has changed size
+    private final Map<WeatherSeries, RangeAggregates> aggregates = new EnumMap<>(WeatherSeries.class);
 
     // Getters and setters for current weather metrics
     public double getTemperature() {
@@ -82,7 +102,48 @@ public class WeatherData {
     }
 
     /**
-     * Clears all chart data lists.
+     * Returns true if the data was served from the cache instead of being fetched.
+     */
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    public void setFromCache(boolean fromCache) {
+        this.fromCache = fromCache;
+    }
+
+    /**
+     * Returns true if cached data past its TTL was served while being revalidated.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
+    /**
+     * Returns true if the column of the series was loaded (it may still hold missing values).
+     */
+    public boolean hasSeries(WeatherSeries series) {
+        return loadedSeries.contains(series);
+    }
+
+    public Set<WeatherSeries> getLoadedSeries() {
+        return Collections.unmodifiableSet(loadedSeries);
+    }
+
+    /**
+     * Marks only the given series as loaded; all series are loaded by default.
+     */
+    public void setLoadedSeries(Collection<WeatherSeries> series) {
+        loadedSeries.clear();
+        loadedSeries.addAll(series);
+    }
+
+    /**
+     * Clears all chart data columns.
      */
     public void clearChartData() {
         windSpeedData.clear();
@@ -90,44 +151,149 @@ public class WeatherData {
         airTempData.clear();
         rainData.clear();
         pressureData.clear();
-        timeLabels.clear();
+        timeData.clear();
+        minTempData.clear();
+        maxTempData.clear();
+        humidityData.clear();
+        aggregates.clear();
     }
 
     /**
-     * Adds a data point for all chart metrics with a time label.
+     * Pre-sizes the chart data columns for an expected number of data points.
+     */
+    public void ensureChartCapacity(int capacity) {
+        windSpeedData.ensureCapacity(capacity);
+        soilTempData.ensureCapacity(capacity);
+        airTempData.ensureCapacity(capacity);
+        rainData.ensureCapacity(capacity);
+        pressureData.ensureCapacity(capacity);
+        timeData.ensureCapacity(capacity);
+        minTempData.ensureCapacity(capacity);
+        maxTempData.ensureCapacity(capacity);
+        humidityData.ensureCapacity(capacity);
+    }
+
+    /**
+     * Adds a data point for all chart metrics with an API timestamp (YYYY-MM-DD[THH:MM]).
+     * Missing values should be passed as NaN.
      */
     public void addChartDataPoint(double windSpeed, double soilTemp, double airTemp,
-                                  double rain, double pressure, String timeLabel) {
+                                  double rain, double pressure, String apiTime) {
+        addValues(windSpeed, soilTemp, airTemp, rain, pressure);
+        addDailyValues(Double.NaN, Double.NaN, Double.NaN);
+        timeData.add(apiTime);
+    }
+
+    /**
+     * Adds a daily data point with min/max temperature and humidity for the data table. The chart
+     * air temperature is the mean of min and max. Missing values should be passed as NaN.
+     */
+    public void addDailyDataPoint(double windSpeed, double soilTemp, double minTemp, double maxTemp,
+                                  double rain, double pressure, double humidity, String apiTime) {
+        addValues(windSpeed, soilTemp, (minTemp + maxTemp) / 2, rain, pressure);
+        addDailyValues(minTemp, maxTemp, humidity);
+        timeData.add(apiTime);
+    }
+
+    /**
+     * Adds a data point for all chart metrics with a free-text label instead of a timestamp.
+     */
+    public void addLabeledChartDataPoint(double windSpeed, double soilTemp, double airTemp,
+                                         double rain, double pressure, String label) {
+        addValues(windSpeed, soilTemp, airTemp, rain, pressure);
+        addDailyValues(Double.NaN, Double.NaN, Double.NaN);
+        timeData.addLabel(label);
+    }
+
+    private void addDailyValues(double minTemp, double maxTemp, double humidity) {
+        minTempData.add(minTemp);
+        maxTempData.add(maxTemp);
+        humidityData.add(humidity);
+    }
+
+    private void addValues(double windSpeed, double soilTemp, double airTemp, double rain, double pressure) {
         windSpeedData.add(windSpeed);
         soilTempData.add(soilTemp);
         airTempData.add(airTemp);
         rainData.add(rain);
         pressureData.add(pressure);
-        timeLabels.add(timeLabel);
     }
 
-    // Getters for chart data lists
-    public List<Double> getWindSpeedData() {
+    /**
+     * Returns the number of chart data points.
+     */
+    public int getChartDataSize() {
+        return timeData.size();
+    }
+
+    // Read-only chart data columns
+    public DoubleColumn getWindSpeedData() {
         return windSpeedData;
     }
 
-    public List<Double> getSoilTempData() {
+    public DoubleColumn getSoilTempData() {
         return soilTempData;
     }
 
-    public List<Double> getAirTempData() {
+    public DoubleColumn getAirTempData() {
         return airTempData;
     }
 
-    public List<Double> getRainData() {
+    public DoubleColumn getRainData() {
         return rainData;
     }
 
-    public List<Double> getPressureData() {
+    public DoubleColumn getPressureData() {
         return pressureData;
     }
 
+    public DoubleColumn getMinTempData() {
+        return minTempData;
+    }
+
+    public DoubleColumn getMaxTempData() {
+        return maxTempData;
+    }
+
+    public DoubleColumn getHumidityData() {
+        return humidityData;
+    }
+
+    public TimeColumn getTimeData() {
+        return timeData;
+    }
+
     public List<String> getTimeLabels() {
-        return timeLabels;
+        return timeData.labels();
+    }
+
+    /**
+     * Builds the range-aggregate index of every series. Call once the data is complete, off the
+     * UI thread; later queries then answer in O(log n).
+     */
+    public void buildAggregates() {
+        for (WeatherSeries series : WeatherSeries.values()) {
+            getAggregates(series);
+        }
+    }
+
+    /**
+     * Returns the range-aggregate index of a series, building it if it is missing or stale.
+     */
+    public RangeAggregates getAggregates(WeatherSeries series) {
+        RangeAggregates index = aggregates.get(series);
+        DoubleColumn column = series.column(this);
+        if (index == null || index.size() != column.size()) {
+            index = new RangeAggregates(column);
+            aggregates.put(series, index);
+        }
+        return index;
+    }
+
+    /**
+     * Returns min/max/sum/mean/count of a series over the days [startDate, endDate].
+     */
+    public RangeStats getRangeStats(WeatherSeries series, LocalDate startDate, LocalDate endDate) {
+        return getAggregates(series).query(timeData.indexOf(startDate), timeData.indexOf(endDate.plusDays(1)));
     }
-}
\ No newline at end of file
+}
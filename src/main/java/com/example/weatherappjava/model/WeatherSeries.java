@@ -0,0 +1,48 @@
+package com.example.weatherappjava.model;
+
+import java.util.function.Function;
+
+/**
+ * Series of {@link WeatherData} that can be charted and exported.
+ */
+public enum WeatherSeries {
+    WIND_SPEED("wind_speed", "Wind Speed", "km/h", WeatherData::getWindSpeedData),
+    SOIL_TEMPERATURE("soil_temperature", "Soil Temperature", "°C", WeatherData::getSoilTempData),
+    AIR_TEMPERATURE("temperature", "Air Temperature", "°C", WeatherData::getAirTempData),
+    PRECIPITATION("precipitation", "Precipitation", "mm", WeatherData::getRainData),
+    PRESSURE("pressure", "Pressure", "hPa", WeatherData::getPressureData);
+
+    private final String key;
+    private final String title;
+    private final String unit;
+    private final Function<WeatherData, DoubleColumn> column;
+
+    WeatherSeries(String key, String title, String unit, Function<WeatherData, DoubleColumn> column) {
+        this.key = key;
+        this.title = title;
+        this.unit = unit;
+        this.column = column;
+    }
+
+    /**
+     * Returns the machine-readable name used in export headers.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Returns the column of this series in the given data.
+     */
+    public DoubleColumn column(WeatherData weatherData) {
+        return column.apply(weatherData);
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.weatherappjava.service;
+
+import com.example.weatherappjava.metrics.Counter;
+import com.example.weatherappjava.metrics.LatencyTimer;
+import com.example.weatherappjava.metrics.MetricsRegistry;
+import com.example.weatherappjava.util.JsonRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Local on-disk store of settled archive months, checked before Redis and the network. Archive
+ * data never changes once settled, so it is kept as decoded doubles rather than JSON:
+ * <pre>
+ * &lt;dir&gt;/&lt;cell&gt;/&lt;variable&gt;.f64   one little-endian double per day, addressed from 1940-01-01
+ * &lt;dir&gt;/&lt;cell&gt;/months           one byte per month since 1940-01, 1 once the month is complete
+ * </pre>
+ * Each day slot is written once; a month becomes visible only after all its variables are forced
+ * to disk. Slots without data hold NaN: variables missing from a stored month, and the gap before a
+ * month written past the end of a file. Variable files are memory-mapped for reading, so a month is
+ * read with one bulk copy per variable and no parsing. Works without Redis.
+ */
+public class ArchiveStore {
+    private static final Logger LOGGER = Logger.getLogger(ArchiveStore.class.getName());
+    // First day of the Open-Meteo historical archive
+    private static final LocalDate BASE_DAY = LocalDate.of(1940, 1, 1);
+    private static final YearMonth BASE_MONTH = YearMonth.from(BASE_DAY);
+    private static final String MONTHS_FILE = "months";
+    private static final String SUFFIX = ".f64";
+
+    private final Path directory;
+    private final Map<String, CellFiles> cells = new ConcurrentHashMap<>();
+    private final Counter hits = MetricsRegistry.counter("cache.archive.hit");
+    private final Counter misses = MetricsRegistry.counter("cache.archive.miss");
+    private final LatencyTimer readTimer = MetricsRegistry.timer("archive.read");
+
+    /**
+     * Creates a store in the given directory (created on first write).
+     */
+    public ArchiveStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the stored month as a daily chunk (time plus one array per variable), or null if
+     * the month is not stored.
+     */
+    public JsonRecord readMonth(String cell, YearMonth month) {
+        int monthIndex = monthIndex(month);
+        if (monthIndex < 0) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            CellFiles files = cellFiles(cell);
+            JsonRecord chunk = files.read(month, monthIndex);
+            if (chunk == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            readTimer.recordSince(start);
+            return chunk;
+        } catch (IOException e) {
+            LOGGER.warning("Cannot read archive store for " + cell + " " + month + ": " + e.getMessage());
+            readTimer.recordError(start);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a complete month chunk (one entry per day of the month, as split from an archive
+     * response). Incomplete chunks are ignored. Failures are logged, never thrown: the store is
+     * only an optimisation.
+     */
+    public void writeMonth(String cell, YearMonth month, JsonRecord chunk) {
+        String[] times = chunk.getStrings("time");
+        int monthIndex = monthIndex(month);
+        if (monthIndex < 0 || times.length != month.lengthOfMonth()
+                || !month.atDay(1).toString().equals(times[0])) {
+            return;
+        }
+        try {
+            cellFiles(cell).write(month, monthIndex, chunk);
+        } catch (IOException e) {
+            LOGGER.warning("Cannot write archive store for " + cell + " " + month + ": " + e.getMessage());
+        }
+    }
+
+    private CellFiles cellFiles(String cell) {
+        return cells.computeIfAbsent(cell, c -> new CellFiles(directory.resolve(c)));
+    }
+
+    private static int monthIndex(YearMonth month) {
+        return (int) ChronoUnit.MONTHS.between(BASE_MONTH, month);
+    }
+
+    /**
+     * Files of one cell: the month bitmap (kept in memory) and the mapped variable files.
+     */
+    private static class CellFiles {
+        private final Path directory;
+        private byte[] months;
+        private Set<String> variables;
+        private final Map<String, MappedByteBuffer> mapped = new HashMap<>();
+
+        CellFiles(Path directory) {
+            this.directory = directory;
+        }
+
+        synchronized JsonRecord read(YearMonth month, int monthIndex) throws IOException {
+            if (!isStored(monthIndex)) {
+                return null;
+            }
+            int days = month.lengthOfMonth();
+            int firstDay = (int) ChronoUnit.DAYS.between(BASE_DAY, month.atDay(1));
+            JsonRecord chunk = new JsonRecord();
+            String[] times = new String[days];
+            for (int d = 0; d < days; d++) {
+                times[d] = month.atDay(d + 1).toString();
+            }
+            chunk.putArray("time", times);
+
+            for (String variable : variables()) {
+                double[] values = new double[days];
+                MappedByteBuffer buffer = map(variable, (firstDay + days) * (long) Double.BYTES);
+                if (buffer == null) {
+                    Arrays.fill(values, Double.NaN);
+                } else {
+                    buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(firstDay, values);
+                }
+                chunk.putArray(variable, values);
+            }
+            return chunk;
+        }
+
+        synchronized void write(YearMonth month, int monthIndex, JsonRecord chunk) throws IOException {
+            if (isStored(monthIndex)) {
+                return;
+            }
+            Files.createDirectories(directory);
+            int days = month.lengthOfMonth();
+            long offset = ChronoUnit.DAYS.between(BASE_DAY, month.atDay(1)) * Double.BYTES;
+            ByteBuffer buffer = ByteBuffer.allocate(days * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+            Set<String> missing = new TreeSet<>(variables());
+            for (String variable : chunk.keys()) {
+                double[] values = chunk.getDoubles(variable);
+                if (variable.equals("time") || values == null || !variable.matches("[a-z0-9_]+")) {
+                    continue;
+                }
+                writeDays(variable, offset, values, buffer);
+                variables().add(variable);
+                missing.remove(variable);
+            }
+            // Variables stored for other months but not in this chunk read back as missing values
+            for (String variable : missing) {
+                writeDays(variable, offset, null, buffer);
+            }
+
+            // Mark the month only once all of its values are on disk
+            months = ensureLength(months, monthIndex + 1);
+            months[monthIndex] = 1;
+            try (FileChannel channel = FileChannel.open(directory.resolve(MONTHS_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{1}), monthIndex);
+                channel.force(false);
+            }
+        }
+
+        /**
+         * Writes one month of a variable at the given byte offset (NaN for missing values) and
+         * forces it to disk. A gap between the end of the file and the offset is filled with NaN,
+         * so days of months stored without this variable never read back as 0.
+         */
+        private void writeDays(String variable, long offset, double[] values, ByteBuffer buffer) throws IOException {
+            try (FileChannel channel = FileChannel.open(directory.resolve(variable + SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                for (long end = channel.size(); end < offset; ) {
+                    buffer.clear();
+                    while (buffer.hasRemaining() && end + buffer.position() < offset) {
+                        buffer.putDouble(Double.NaN);
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer, end + buffer.position());
+                    }
+                    end += buffer.limit();
+                }
+
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    buffer.putDouble(JsonRecord.valueAt(values, buffer.position() / Double.BYTES));
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, offset + buffer.position());
+                }
+                channel.force(false);
+            }
+        }
+
+        private boolean isStored(int monthIndex) throws IOException {
+            if (months == null) {
+                Path file = directory.resolve(MONTHS_FILE);
+                months = Files.exists(file) ? Files.readAllBytes(file) : new byte[0];
+            }
+            return monthIndex < months.length && months[monthIndex] == 1;
+        }
+
+        private Set<String> variables() throws IOException {
+            if (variables == null) {
+                variables = new TreeSet<>();
+                if (Files.isDirectory(directory)) {
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                        for (Path file : files) {
+                            String name = file.getFileName().toString();
+                            variables.add(name.substring(0, name.length() - SUFFIX.length()));
+                        }
+                    }
+                }
+            }
+            return variables;
+        }
+
+        /**
+         * Returns a read-only mapping of a variable file covering at least minBytes, remapping
+         * when the file has grown since it was last mapped. Returns null if the file is too short.
+         */
+        private MappedByteBuffer map(String variable, long minBytes) throws IOException {
+            MappedByteBuffer buffer = mapped.get(variable);
+            if (buffer != null && buffer.capacity() >= minBytes) {
+                return buffer;
+            }
+            try (FileChannel channel = FileChannel.open(directory.resolve(variable + SUFFIX), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < minBytes) {
+                    return null;
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            mapped.put(variable, buffer);
+            return buffer;
+        }
+
+        private static byte[] ensureLength(byte[] array, int length) {
+            return array.length >= length ? array : Arrays.copyOf(array, length);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.weatherappjava.service;
+
+import java.io.IOException;
+
+/**
+ * Loads a value that is missing from the cache, typically by calling the upstream API.
+ */
+@FunctionalInterface
+public interface CacheLoader {
+    String load() throws IOException;
+}
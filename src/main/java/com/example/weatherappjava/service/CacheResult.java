@@ -0,0 +1,40 @@
+package com.example.weatherappjava.service;
+
+/**
+ * Result of {@link RedisCacheService#getOrLoad}: the value and whether it was served from the cache.
+ */
+public class CacheResult {
+    private final String value;
+    private final boolean fromCache;
+    private final boolean stale;
+
+    public CacheResult(String value, boolean fromCache) {
+        this(value, fromCache, false);
+    }
+
+    public CacheResult(String value, boolean fromCache, boolean stale) {
+        this.value = value;
+        this.fromCache = fromCache;
+        this.stale = stale;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns true if the value was read from the cache, false if it was loaded (by this
+     * caller or by a concurrent caller whose load was shared).
+     */
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    /**
+     * Returns true if the cached value is past its soft expiry and is being revalidated in the
+     * background (see {@link RedisCacheService#getOrLoadStale}).
+     */
+    public boolean isStale() {
+        return stale;
+    }
+}
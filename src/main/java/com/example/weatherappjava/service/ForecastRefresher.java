@@ -0,0 +1,275 @@
+package com.example.weatherappjava.service;
+
+import com.example.weatherappjava.metrics.Counter;
+import com.example.weatherappjava.metrics.MetricsRegistry;
+import com.example.weatherappjava.model.LocationData;
+import com.example.weatherappjava.util.AppConfig;
+import com.example.weatherappjava.util.IoExecutor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the cached forecasts of a watchlist of locations warm, so searches for them never wait
+ * for Open-Meteo. Each watched cell is re-fetched weather.refresh.leadSeconds before its cache
+ * entry expires, minus a random jitter, so refreshes do not all fall due together. Entries that
+ * fall due in the same check are sent as multi-location requests, with at most
+ * weather.refresh.maxConcurrent requests in flight. At start every entry is due, which pre-warms
+ * the cache; entries still fresh in Redis (e.g. refreshed by another instance) are only
+ * rescheduled.
+ * <p>
+ * The watchlist file (weather.refresh.watchlist) holds one location per line, as a city name or
+ * "latitude,longitude"; empty lines and lines starting with # are ignored.
+ */
+public class ForecastRefresher {
+    private static final Logger LOGGER = Logger.getLogger(ForecastRefresher.class.getName());
+    private static final Path WATCHLIST = Path.of(AppConfig.getString("weather.refresh.watchlist", "watchlist.txt"));
+    private static final String FORECAST_DAYS = AppConfig.getString("weather.refresh.forecastDays", "7");
+    private static final long LEAD_MILLIS = AppConfig.getLong("weather.refresh.leadSeconds", 300) * 1000;
+    private static final long JITTER_MILLIS = AppConfig.getLong("weather.refresh.jitterSeconds", 120) * 1000;
+    private static final long CHECK_SECONDS = Math.max(1, AppConfig.getLong("weather.refresh.checkSeconds", 30));
+    private static final long RETRY_MILLIS = 60_000;
+    private static final int BATCH_SIZE = AppConfig.getInt("weather.batch.maxLocations", 100);
+
+    private static ForecastRefresher instance;
+
+    private final RedisCacheService cacheService = RedisCacheService.getInstance();
+    private final WeatherService weatherService = new WeatherService();
+    private final Semaphore upstreamPermits = new Semaphore(Math.max(1, AppConfig.getInt("weather.refresh.maxConcurrent", 2)));
+    private final List<Entry> entries = new ArrayList<>();
+    private final Counter refreshed = MetricsRegistry.counter("refresh.forecast.ok");
+    private final Counter failed = MetricsRegistry.counter("refresh.forecast.error");
+    private final Counter skipped = MetricsRegistry.counter("refresh.forecast.fresh");
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Returns the singleton refresher.
+     */
+    public static synchronized ForecastRefresher getInstance() {
+        if (instance == null) {
+            instance = new ForecastRefresher();
+        }
+        return instance;
+    }
+
+    private ForecastRefresher() {
+    }
+
+    /**
+     * Loads the watchlist and starts refreshing in the background. Does nothing if refreshing is
+     * disabled (weather.refresh.enabled) or the watchlist file does not exist.
+     */
+    public synchronized void start() {
+        if (scheduler != null || !AppConfig.getBoolean("weather.refresh.enabled", true) || !Files.isRegularFile(WATCHLIST)) {
+            return;
+        }
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "forecast-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler = executor;
+        // City names may need a geocoding request, so the list is loaded on the scheduler thread
+        scheduler.execute(this::loadWatchlist);
+        scheduler.scheduleWithFixedDelay(this::refreshDue, 0, CHECK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops refreshing; requests already in flight complete.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void loadWatchlist() {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(WATCHLIST, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.warning("Cannot read watchlist " + WATCHLIST + ": " + e.getMessage());
+            return;
+        }
+        List<Integer> days = new ArrayList<>();
+        for (String value : FORECAST_DAYS.split(",")) {
+            try {
+                int forecastDays = Integer.parseInt(value.trim());
+                if (forecastDays >= 1 && forecastDays <= 16) {
+                    days.add(forecastDays);
+                }
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Ignoring invalid weather.refresh.forecastDays value: " + value);
+            }
+        }
+
+        GeolocationService geolocationService = new GeolocationService();
+        Set<String> cells = new LinkedHashSet<>();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                LocationData location = parseLocation(line, geolocationService);
+                cells.add(cacheService.forecastCell(location.getLatitude(), location.getLongitude()));
+            } catch (IOException e) {
+                LOGGER.warning("Skipping watchlist entry " + line + ": " + e.getMessage());
+            }
+        }
+
+        synchronized (entries) {
+            for (String cell : cells) {
+                for (int forecastDays : days) {
+                    entries.add(new Entry(cell, forecastDays, cacheService.generateForecastCacheKey(cell, forecastDays)));
+                }
+            }
+        }
+        LOGGER.info("Watching " + cells.size() + " location(s) from " + WATCHLIST + ", forecast days " + days);
+    }
+
+    private static LocationData parseLocation(String line, GeolocationService geolocationService) throws IOException {
+        int comma = line.indexOf(',');
+        if (comma > 0) {
+            try {
+                double latitude = Double.parseDouble(line.substring(0, comma).trim());
+                double longitude = Double.parseDouble(line.substring(comma + 1).trim());
+                return new LocationData(line, latitude, longitude);
+            } catch (NumberFormatException e) {
+                // Not coordinates; treat as a city name containing a comma
+            }
+        }
+        return geolocationService.getLocationByCity(line);
+    }
+
+    /**
+     * Runs on the scheduler thread: refreshes the entries that are due, grouped into
+     * multi-location requests per forecast length.
+     */
+    private void refreshDue() {
+        try {
+            submitDue();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task
+            LOGGER.log(Level.WARNING, "Forecast refresh check failed", e);
+        }
+    }
+
+    private void submitDue() {
+        long now = System.currentTimeMillis();
+        List<Entry> due = new ArrayList<>();
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                if (entry.dueAt <= now) {
+                    entry.dueAt = Long.MAX_VALUE; // in flight
+                    due.add(entry);
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Entries refreshed elsewhere since they were scheduled only need a new due time
+        List<String> keys = new ArrayList<>(due.size());
+        for (Entry entry : due) {
+            keys.add(entry.cacheKey);
+        }
+        Map<String, Long> ttls = cacheService.getRemainingTtls(keys);
+        // Entries are stored with a stale window after their TTL; refreshes aim at the TTL
+        long staleMillis = cacheService.getForecastStaleSeconds() * 1000L;
+        Map<Integer, List<Entry>> byDays = new LinkedHashMap<>();
+        for (Entry entry : due) {
+            Long ttl = ttls.get(entry.cacheKey);
+            if (ttl != null && (ttl < 0 || ttl - staleMillis > LEAD_MILLIS)) {
+                schedule(entry, ttl < 0 ? cacheService.getForecastTtl() * 1000L : ttl - staleMillis);
+                skipped.increment();
+            } else {
+                byDays.computeIfAbsent(entry.forecastDays, d -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        for (Map.Entry<Integer, List<Entry>> group : byDays.entrySet()) {
+            List<Entry> list = group.getValue();
+            for (int from = 0; from < list.size(); from += BATCH_SIZE) {
+                List<Entry> batch = list.subList(from, Math.min(from + BATCH_SIZE, list.size()));
+                IoExecutor.getInstance().execute(() -> refresh(batch, group.getKey()));
+            }
+        }
+    }
+
+    /**
+     * Runs on the I/O executor: one upstream request, within the concurrency budget.
+     */
+    private void refresh(List<Entry> batch, int forecastDays) {
+        List<String> cells = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            cells.add(entry.cell);
+        }
+        try {
+            upstreamPermits.acquire();
+            try {
+                weatherService.refreshForecasts(cells, forecastDays);
+            } finally {
+                upstreamPermits.release();
+            }
+            for (Entry entry : batch) {
+                schedule(entry, cacheService.getForecastTtl() * 1000L);
+            }
+            refreshed.add(batch.size());
+            LOGGER.fine("Refreshed " + batch.size() + " watched forecast(s) for " + forecastDays + " days");
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Forecast refresh failed for " + batch.size() + " location(s): " + e.getMessage());
+            failed.add(batch.size());
+            for (Entry entry : batch) {
+                entry.dueAt = System.currentTimeMillis() + RETRY_MILLIS + jitter();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedules the next refresh of an entry whose cache entry becomes stale in ttlMillis.
+     */
+    private void schedule(Entry entry, long ttlMillis) {
+        entry.dueAt = System.currentTimeMillis() + Math.max(0, ttlMillis - LEAD_MILLIS - jitter());
+    }
+
+    private static long jitter() {
+        return JITTER_MILLIS > 0 ? ThreadLocalRandom.current().nextLong(JITTER_MILLIS) : 0;
+    }
+
+    /**
+     * One watched cell and forecast length; dueAt is the wall-clock time of the next refresh.
+     */
+    private static class Entry {
+        final String cell;
+        final int forecastDays;
+        final String cacheKey;
+        volatile long dueAt;
+
+        Entry(String cell, int forecastDays, String cacheKey) {
+            this.cell = cell;
+            this.forecastDays = forecastDays;
+            this.cacheKey = cacheKey;
+        }
+    }
+}
@@ -1,48 +1,70 @@
 package com.example.weatherappjava.service;
 
 import com.example.weatherappjava.model.LocationData;
-import com.example.weatherappjava.util.HttpUtil;
-import com.example.weatherappjava.util.JsonParser;
+import com.example.weatherappjava.util.AppConfig;
+import com.example.weatherappjava.util.HttpBody;
+import com.example.weatherappjava.util.HttpTransport;
+import com.example.weatherappjava.util.JsonRecord;
+import com.example.weatherappjava.util.OpenMeteoDecoder;
 
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.logging.Logger;
 
 /**
- * Service for fetching geolocation data from the Open-Meteo geocoding API.
+ * Service for fetching geolocation data from the Open-Meteo geocoding API. City coordinates
+ * practically never change, so matches are cached for a long time and misses for a shorter one.
  */
 public class GeolocationService {
-    private String rawGeoResponse;
+    private static final Logger LOGGER = Logger.getLogger(GeolocationService.class.getName());
+    private static final String LANGUAGE = "pl";
+    // Cached in place of a match when the API knows no such city
+    private static final String NOT_FOUND = "{}";
+
+    private static final int FOUND_TTL = AppConfig.getInt("weather.cache.geocode.ttlSeconds", 30 * 24 * 3600);
+    private static final int NOT_FOUND_TTL = AppConfig.getInt("weather.cache.geocode.notFoundTtlSeconds", 24 * 3600);
+    // Endpoint of the geocoding API (configurable to point at a local stand-in server)
+    private static final String GEOCODING_URL = AppConfig.getString("weather.api.geocodingUrl", "https://geocoding-api.open-meteo.com/v1/search");
+
+    private final RedisCacheService cacheService = RedisCacheService.getInstance();
 
     /**
      * Retrieves location data (name, coordinates) for a given city.
      */
     public LocationData getLocationByCity(String city) throws IOException {
-        // Build geocoding API URL with encoded city name
-        String geoApiUrl = "https://geocoding-api.open-meteo.com/v1/search?name="
-                + URLEncoder.encode(city, StandardCharsets.UTF_8)
-                + "&count=1&language=pl&format=json";
-
-        // Fetch raw JSON response
-        rawGeoResponse = HttpUtil.makeHttpRequest(geoApiUrl);
+        String cacheKey = cacheService.generateGeocodeCacheKey(city, LANGUAGE);
+        CacheResult result = cacheService.getOrLoad(cacheKey,
+                value -> NOT_FOUND.equals(value) ? NOT_FOUND_TTL : FOUND_TTL,
+                () -> fetchFirstMatch(city));
+        if (result.isFromCache()) {
+            LOGGER.info("Found geocoding result in cache for: " + city);
+        }
 
-        // Validate response
-        if (!rawGeoResponse.contains("\"results\"") || rawGeoResponse.contains("\"results\":[]")) {
+        JsonRecord match = OpenMeteoDecoder.decode(result.getValue());
+        if (!match.has("latitude") || !match.has("longitude")) {
             throw new IOException("City not found: " + city);
         }
 
-        // Parse coordinates and name from JSON
-        double latitude = JsonParser.extractDoubleFromJson(rawGeoResponse, "latitude");
-        double longitude = JsonParser.extractDoubleFromJson(rawGeoResponse, "longitude");
-        String name = JsonParser.extractStringFromJson(rawGeoResponse, "name");
+        double latitude = match.getDouble("latitude", 0.0);
+        double longitude = match.getDouble("longitude", 0.0);
+        String name = match.getString("name");
 
         return new LocationData(name, latitude, longitude);
     }
 
     /**
-     * Returns the raw JSON response from the last geocoding request.
+     * Queries the geocoding API and returns the first match as JSON, or {@link #NOT_FOUND}.
      */
-    public String getRawGeoResponse() {
-        return rawGeoResponse;
+    private String fetchFirstMatch(String city) throws IOException {
+        // Build geocoding API URL with encoded city name
+        String geoApiUrl = GEOCODING_URL + "?name="
+                + URLEncoder.encode(city, StandardCharsets.UTF_8)
+                + "&count=1&language=" + LANGUAGE + "&format=json";
+
+        HttpBody body = HttpTransport.getInstance().get(geoApiUrl);
+        List<JsonRecord> results = OpenMeteoDecoder.decode(body.openStream(), "results").getRecords("results");
+        return results.isEmpty() ? NOT_FOUND : results.get(0).toJson();
     }
-}
\ No newline at end of file
+}
@@ -2,16 +2,31 @@ package com.example.weatherappjava.service;
 
 import com.example.weatherappjava.model.LocationData;
 import com.example.weatherappjava.model.WeatherData;
-import com.example.weatherappjava.util.DateFormatter;
-import com.example.weatherappjava.util.HttpUtil;
-import com.example.weatherappjava.util.JsonParser;
-
-import javafx.scene.control.Label;
-import javafx.scene.layout.GridPane;
+import com.example.weatherappjava.model.WeatherSeries;
+import com.example.weatherappjava.util.AppConfig;
+import com.example.weatherappjava.util.DailySeriesCodec;
+import com.example.weatherappjava.util.GeoHash;
+import com.example.weatherappjava.util.HttpBody;
+import com.example.weatherappjava.util.HttpTransport;
+import com.example.weatherappjava.util.JsonRecord;
+import com.example.weatherappjava.util.OpenMeteoDecoder;
 
 import java.io.IOException;
-import java.net.UnknownHostException;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 /**
@@ -19,301 +34,437 @@ import java.util.logging.Logger;
  */
 public class HistoricalWeatherService {
     private static final Logger LOGGER = Logger.getLogger(HistoricalWeatherService.class.getName());
-    private String rawWeatherResponse;
+
+    // Recent archive days are still being filled in; months within this window are cached only briefly
+    private static final int ARCHIVE_DELAY_DAYS = 7;
+    private static final int RECENT_MONTH_TTL = AppConfig.getInt("weather.cache.historical.recentTtlSeconds", 6 * 3600);
+    // Maximum number of locations in one multi-location request
+    private static final int BATCH_SIZE = AppConfig.getInt("weather.batch.maxLocations", 100);
+    // Daily variables requested from the archive; each is one field of the cached month hash
+    private static final List<String> VARIABLES = List.of("temperature_2m_max", "temperature_2m_min",
+            "precipitation_sum", "weather_code", "windspeed_10m_mean", "relative_humidity_2m_mean",
+            "surface_pressure_mean", "soil_temperature_0_to_7cm_mean");
+    // Endpoint of the archive API (configurable to point at a local stand-in server)
+    private static final String ARCHIVE_URL = AppConfig.getString("weather.api.archiveUrl", "https://archive-api.open-meteo.com/v1/archive");
+
     private final RedisCacheService cacheService = RedisCacheService.getInstance();
+    private final HttpTransport httpTransport = HttpTransport.getInstance();
+    // Local store of settled months; null when disabled
+    private final ArchiveStore archiveStore;
 
     /**
-     * Returns the raw JSON response from the last API request.
+     * Creates the service with the archive store configured by weather.archive.store.enabled and
+     * weather.archive.store.dir. The store directory is only touched on the first read or write.
      */
-    public String getRawWeatherResponse() {
-        return rawWeatherResponse;
+    public HistoricalWeatherService() {
+        this.archiveStore = AppConfig.getBoolean("weather.archive.store.enabled", true)
+                ? new ArchiveStore(Path.of(AppConfig.getString("weather.archive.store.dir",
+                        Path.of(System.getProperty("user.home"), ".weather-app", "archive").toString())))
+                : null;
     }
 
     /**
      * Fetches historical weather data for a location and date range, using cache if available.
      */
     public WeatherData getHistoricalWeather(LocationData location, LocalDate startDate, LocalDate endDate) throws IOException {
-        // Validate input dates
-        if (startDate == null || endDate == null) {
-            throw new IllegalArgumentException("Select start and end dates.");
-        }
+        return loadHistorical(location, startDate, endDate, VARIABLES);
+    }
 
-        String startDateStr = startDate.toString();
-        String endDateStr = endDate.toString();
-        String cacheKey = cacheService.generateHistoricalCacheKey(location.getLatitude(), location.getLongitude(), startDate, endDate);
-        boolean usedCache = false;
-
-        // Check cache first
-        if (cacheService.hasCache(cacheKey)) {
-            LOGGER.info("Found historical data in cache for: " + location.getName());
-            rawWeatherResponse = cacheService.getFromCache(cacheKey);
-            usedCache = true;
-        } else {
-            // Fetch from API if not in cache
-            try {
-                LOGGER.info("Fetching historical data from API for: " + location.getName() +
-                        " from " + startDateStr + " to " + endDateStr);
-                String historicalWeatherApiUrl = "https://archive-api.open-meteo.com/v1/archive?latitude=" + location.getLatitude() +
-                        "&longitude=" + location.getLongitude() +
-                        "&start_date=" + startDateStr +
-                        "&end_date=" + endDateStr +
-                        "&daily=temperature_2m_max,temperature_2m_min,precipitation_sum,weather_code," +
-                        "windspeed_10m_mean,relative_humidity_2m_mean,surface_pressure_mean,soil_temperature_0_to_7cm_mean" +
-                        "&timezone=auto";
-
-                rawWeatherResponse = HttpUtil.makeHttpRequest(historicalWeatherApiUrl);
-                cacheService.saveToCache(cacheKey, rawWeatherResponse, false);
-            } catch (UnknownHostException e) {
-                LOGGER.warning("No internet connection, checking cache...");
-                usedCache = true;
-            } catch (IOException e) {
-                LOGGER.warning("API fetch error: " + e.getMessage() + ", checking cache...");
-                usedCache = true;
-            }
+    /**
+     * Same as {@link #getHistoricalWeather(LocationData, LocalDate, LocalDate)}, filling only the
+     * given series and, if asked, the daily humidity; the other columns stay NaN.
+     */
+    public WeatherData getHistoricalSeries(LocationData location, LocalDate startDate, LocalDate endDate,
+                                           Collection<WeatherSeries> series, boolean humidity) throws IOException {
+        List<String> variables = variablesFor(series);
+        if (humidity) {
+            variables.add("relative_humidity_2m_mean");
         }
+        WeatherData weatherData = loadHistorical(location, startDate, endDate, variables);
+        weatherData.setLoadedSeries(series);
+        return weatherData;
+    }
 
-        // Fallback to cache if API failed
-        if (usedCache && rawWeatherResponse == null) {
-            if (cacheService.hasCache(cacheKey)) {
-                LOGGER.info("Found historical data in cache for: " + location.getName());
-                rawWeatherResponse = cacheService.getFromCache(cacheKey);
-            } else {
-                throw new IOException("No internet connection and no cached data for: " +
-                        location.getName() + " from " + startDateStr + " to " + endDateStr);
-            }
+    private WeatherData loadHistorical(LocationData location, LocalDate startDate, LocalDate endDate,
+                                       List<String> variables) throws IOException {
+        validateDates(startDate, endDate);
+
+        String cell = cacheService.historicalCell(location.getLatitude(), location.getLongitude());
+        Set<String> fetchedCells = new HashSet<>();
+        Map<String, Map<YearMonth, JsonRecord>> chunks;
+        try {
+            chunks = loadMonths(Collections.singletonList(cell), startDate, endDate, variables, fetchedCells);
+        } catch (IOException e) {
+            LOGGER.warning("API fetch error: " + e.getMessage());
+            throw new IOException("No internet connection and no cached data for: " +
+                    location.getName() + " from " + startDate + " to " + endDate, e);
         }
 
-        // Process and return weather data
+        JsonRecord dailyData = assemble(chunks.get(cell), startDate, endDate);
+
         WeatherData weatherData = new WeatherData();
-        weatherData.setTime(startDateStr + " to " + endDateStr + (usedCache ? " (cached)" : ""));
-        processHistoricalData(weatherData);
+        weatherData.setTime(startDate + " to " + endDate + (fetchedCells.isEmpty() ? " (cached)" : ""));
+        weatherData.setFromCache(fetchedCells.isEmpty());
+        processHistoricalData(weatherData, variables.size() < VARIABLES.size() ? select(dailyData, variables) : dailyData);
         return weatherData;
     }
 
     /**
-     * Extracts and processes historical weather data from JSON response into a WeatherData object.
+     * Fetches historical weather data for many locations and the same date range. Month chunks of
+     * all locations are read from the cache in one pipelined round trip; missing months are
+     * requested for up to weather.batch.maxLocations locations at once. Returns one WeatherData
+     * per location, in the order of the input.
      */
-    private void processHistoricalData(WeatherData weatherData) {
-        String dailyJson = JsonParser.extractStringFromJson(rawWeatherResponse, "daily");
-        if (dailyJson != null && !dailyJson.isEmpty()) {
-            // Extract JSON arrays
-            String datesJson = JsonParser.extractStringFromJson(dailyJson, "time");
-            String maxTempJson = JsonParser.extractStringFromJson(dailyJson, "temperature_2m_max");
-            String minTempJson = JsonParser.extractStringFromJson(dailyJson, "temperature_2m_min");
-            String precipSumJson = JsonParser.extractStringFromJson(dailyJson, "precipitation_sum");
-            String windSpeedJson = JsonParser.extractStringFromJson(dailyJson, "windspeed_10m_mean");
-            String humidityJson = JsonParser.extractStringFromJson(dailyJson, "relative_humidity_2m_mean");
-            String pressureJson = JsonParser.extractStringFromJson(dailyJson, "surface_pressure_mean");
-            String soilTempJson = JsonParser.extractStringFromJson(dailyJson, "soil_temperature_0_to_7cm_mean");
-
-            // Parse arrays
-            String[] dates = JsonParser.parseJsonArray(datesJson);
-            String[] maxTemps = JsonParser.parseJsonArray(maxTempJson);
-            String[] minTemps = JsonParser.parseJsonArray(minTempJson);
-            String[] precipSums = JsonParser.parseJsonArray(precipSumJson);
-            String[] windSpeeds = JsonParser.parseJsonArray(windSpeedJson);
-            String[] humidities = JsonParser.parseJsonArray(humidityJson);
-            String[] pressures = JsonParser.parseJsonArray(pressureJson);
-            String[] soilTemps = JsonParser.parseJsonArray(soilTempJson);
+    public List<WeatherData> getHistoricalWeather(List<LocationData> locations, LocalDate startDate, LocalDate endDate) throws IOException {
+        return loadHistorical(locations, startDate, endDate, VARIABLES);
+    }
 
-            // Track whether we have valid data for initial weather properties
-            boolean hasInitialData = false;
-            double initialWindSpeed = 0;
-            double initialSoilTemp = 0;
-            double initialHumidity = 0;
-            double initialPressure = 0;
+    /**
+     * Same as {@link #getHistoricalWeather(List, LocalDate, LocalDate)}, filling only the given
+     * series; the other columns (and humidity) stay NaN. Cached months are read with only the
+     * variables these series need.
+     */
+    public List<WeatherData> getHistoricalSeries(List<LocationData> locations, LocalDate startDate, LocalDate endDate,
+                                                 Collection<WeatherSeries> series) throws IOException {
+        List<WeatherData> result = loadHistorical(locations, startDate, endDate, variablesFor(series));
+        for (WeatherData weatherData : result) {
+            weatherData.setLoadedSeries(series);
+        }
+        return result;
+    }
 
-            // Process daily data
-            for (int i = 0; i < dates.length; i++) {
-                // Initialize with special values to indicate missing data
-                Double avgTemp = null;
-                Double precipVal = null;
-                Double windSpeed = null;
-                Double humidity = null;
-                Double pressure = null;
-                Double soilTemp = null;
-
-                // Parse values with error handling - using null to represent missing data
-                try {
-                    if (maxTemps != null && minTemps != null &&
-                            i < maxTemps.length && i < minTemps.length &&
-                            maxTemps[i] != null && !maxTemps[i].equals("null") &&
-                            minTemps[i] != null && !minTemps[i].equals("null")) {
-
-                        double maxTemp = Double.parseDouble(maxTemps[i]);
-                        double minTemp = Double.parseDouble(minTemps[i]);
-                        avgTemp = (maxTemp + minTemp) / 2;
-                    }
-                } catch (NumberFormatException e) {
-                    avgTemp = null;
-                }
+    /**
+     * Returns the archive variables needed for the given series.
+     */
+    private static List<String> variablesFor(Collection<WeatherSeries> series) {
+        List<String> variables = new ArrayList<>();
+        for (WeatherSeries chosen : series.isEmpty() ? EnumSet.noneOf(WeatherSeries.class) : EnumSet.copyOf(series)) {
+            switch (chosen) {
+                case AIR_TEMPERATURE:
+                    variables.add("temperature_2m_max");
+                    variables.add("temperature_2m_min");
+                    break;
+                case PRECIPITATION:
+                    variables.add("precipitation_sum");
+                    break;
+                case WIND_SPEED:
+                    variables.add("windspeed_10m_mean");
+                    break;
+                case PRESSURE:
+                    variables.add("surface_pressure_mean");
+                    break;
+                case SOIL_TEMPERATURE:
+                    variables.add("soil_temperature_0_to_7cm_mean");
+                    break;
+            }
+        }
+        return variables;
+    }
 
-                try {
-                    if (precipSums != null && i < precipSums.length &&
-                            precipSums[i] != null && !precipSums[i].equals("null")) {
-                        precipVal = Double.parseDouble(precipSums[i]);
-                    }
-                } catch (NumberFormatException e) {
-                    precipVal = null;
-                }
+    private List<WeatherData> loadHistorical(List<LocationData> locations, LocalDate startDate, LocalDate endDate,
+                                             List<String> variables) throws IOException {
+        validateDates(startDate, endDate);
 
-                try {
-                    if (windSpeeds != null && i < windSpeeds.length &&
-                            windSpeeds[i] != null && !windSpeeds[i].equals("null")) {
-                        windSpeed = Double.parseDouble(windSpeeds[i]);
-                        if (i == 0 || !hasInitialData) {
-                            initialWindSpeed = windSpeed;
-                        }
-                    }
-                } catch (NumberFormatException e) {
-                    windSpeed = null;
-                }
+        List<String> cells = new ArrayList<>(locations.size());
+        for (LocationData location : locations) {
+            cells.add(cacheService.historicalCell(location.getLatitude(), location.getLongitude()));
+        }
+        Set<String> fetchedCells = new HashSet<>();
+        Map<String, Map<YearMonth, JsonRecord>> chunks = loadMonths(new LinkedHashSet<>(cells), startDate, endDate, variables, fetchedCells);
+
+        List<WeatherData> result = new ArrayList<>(locations.size());
+        for (String cell : cells) {
+            WeatherData weatherData = new WeatherData();
+            weatherData.setTime(startDate + " to " + endDate + (fetchedCells.contains(cell) ? "" : " (cached)"));
+            weatherData.setFromCache(!fetchedCells.contains(cell));
+            JsonRecord daily = assemble(chunks.get(cell), startDate, endDate);
+            processHistoricalData(weatherData, variables.size() < VARIABLES.size() ? select(daily, variables) : daily);
+            result.add(weatherData);
+        }
+        return result;
+    }
 
-                try {
-                    if (humidities != null && i < humidities.length &&
-                            humidities[i] != null && !humidities[i].equals("null")) {
-                        humidity = Double.parseDouble(humidities[i]);
-                        if (i == 0 || !hasInitialData) {
-                            initialHumidity = humidity;
-                        }
-                    }
-                } catch (NumberFormatException e) {
-                    humidity = null;
-                }
+    private static void validateDates(LocalDate startDate, LocalDate endDate) {
+        // Validate input dates
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Select start and end dates.");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date.");
+        }
+    }
 
-                try {
-                    if (pressures != null && i < pressures.length &&
-                            pressures[i] != null && !pressures[i].equals("null")) {
-                        pressure = Double.parseDouble(pressures[i]);
-                        if (i == 0 || !hasInitialData) {
-                            initialPressure = pressure;
-                        }
-                    }
-                } catch (NumberFormatException e) {
-                    pressure = null;
+    /**
+     * Returns the month chunks covering [startDate, endDate] for each cell, holding at least the
+     * given variables. Chunks are looked up in the local archive store first, then in the cache
+     * (reading only those variables); missing ones are fetched with all variables, with one request
+     * per run of consecutive months, shared by all cells missing the same run. Cells that needed a
+     * fetch are added to fetchedCells.
+     */
+    private Map<String, Map<YearMonth, JsonRecord>> loadMonths(Collection<String> cells, LocalDate startDate, LocalDate endDate,
+                                                               List<String> variables, Set<String> fetchedCells) throws IOException {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        LocalDate settled = LocalDate.now().minusDays(ARCHIVE_DELAY_DAYS);
+
+        // Settled months from the local store need neither Redis nor the network
+        Map<String, Map<YearMonth, JsonRecord>> chunks = new HashMap<>();
+        List<String> cacheKeys = new ArrayList<>(cells.size() * months.size());
+        int storedCount = 0;
+        for (String cell : cells) {
+            Map<YearMonth, JsonRecord> cellChunks = new HashMap<>();
+            chunks.put(cell, cellChunks);
+            for (YearMonth month : months) {
+                JsonRecord stored = archiveStore != null && !month.atEndOfMonth().isAfter(settled)
+                        ? archiveStore.readMonth(cell, month) : null;
+                if (stored != null) {
+                    cellChunks.put(month, stored);
+                    storedCount++;
+                } else {
+                    cacheKeys.add(cacheService.generateHistoricalCacheKey(cell, month));
                 }
-
-                try {
-                    if (soilTemps != null && i < soilTemps.length &&
-                            soilTemps[i] != null && !soilTemps[i].equals("null")) {
-                        soilTemp = Double.parseDouble(soilTemps[i]);
-                        if (i == 0 || !hasInitialData) {
-                            initialSoilTemp = soilTemp;
-                        }
-                    }
-                } catch (NumberFormatException e) {
-                    soilTemp = null;
+            }
+        }
+        Map<String, Map<String, byte[]>> cached = cacheService.getFields(cacheKeys, DailySeriesCodec.fieldsFor(variables));
+        boolean allVariables = variables.containsAll(VARIABLES);
+
+        // Group cells by the runs of consecutive months they are missing
+        Map<List<YearMonth>, List<String>> cellsByRun = new LinkedHashMap<>();
+        int cachedCount = 0;
+        for (String cell : cells) {
+            Map<YearMonth, JsonRecord> cellChunks = chunks.get(cell);
+            List<YearMonth> missing = new ArrayList<>();
+            for (YearMonth month : months) {
+                if (cellChunks.containsKey(month)) {
+                    continue;
                 }
-
-                // Add data point to WeatherData only if we have valid data
-                // Skip this date point on the chart if data is missing
-                if (avgTemp != null && precipVal != null && windSpeed != null && pressure != null && soilTemp != null) {
-                    weatherData.addChartDataPoint(
-                            windSpeed,
-                            soilTemp,
-                            avgTemp,
-                            precipVal,
-                            pressure,
-                            DateFormatter.formatDate(dates[i])
-                    );
-
-                    // Set initial weather properties from the first valid data point
-                    if (!hasInitialData) {
-                        hasInitialData = true;
-                        weatherData.setWindSpeed(windSpeed);
-                        weatherData.setSoilTemperature(soilTemp);
-                        weatherData.setHumidity(humidity != null ? humidity : 0);
-                        weatherData.setPressure(pressure);
+                Map<String, byte[]> fields = cached.get(cacheService.generateHistoricalCacheKey(cell, month));
+                JsonRecord chunk = fields != null ? DailySeriesCodec.decode(fields, variables) : null;
+                if (chunk != null && coversRequest(chunk, month, endDate)) {
+                    cellChunks.put(month, chunk);
+                    cachedCount++;
+                    // Settled months cached before the store existed (or by another machine)
+                    if (allVariables) {
+                        storeIfSettled(cell, month, chunk, settled);
                     }
+                } else {
+                    missing.add(month);
+                }
+            }
+            int runStart = 0;
+            for (int i = 1; i <= missing.size(); i++) {
+                if (i == missing.size() || !missing.get(i).equals(missing.get(i - 1).plusMonths(1))) {
+                    cellsByRun.computeIfAbsent(Arrays.asList(missing.get(runStart), missing.get(i - 1)),
+                            run -> new ArrayList<>()).add(cell);
+                    runStart = i;
                 }
             }
+            if (!missing.isEmpty()) {
+                fetchedCells.add(cell);
+            }
+        }
+        LOGGER.info("Historical data: " + storedCount + " of " + cells.size() * months.size()
+                + " location-months in local store, " + cachedCount + " in cache, "
+                + cellsByRun.size() + " ranges to fetch");
+
+        for (Map.Entry<List<YearMonth>, List<String>> run : cellsByRun.entrySet()) {
+            List<String> runCells = run.getValue();
+            for (int from = 0; from < runCells.size(); from += BATCH_SIZE) {
+                fetchMonths(runCells.subList(from, Math.min(from + BATCH_SIZE, runCells.size())),
+                        run.getKey().get(0), run.getKey().get(1), endDate, chunks);
+            }
         }
+        return chunks;
     }
 
     /**
-     * Displays historical weather data in a grid layout
+     * Joins the month chunks of one cell and cuts them to the requested window.
      */
-    public void displayHistoricalDataInGrid(GridPane forecastGrid, WeatherData weatherData) {
-        // Clear existing items
-        forecastGrid.getChildren().clear();
-
-        // Add headers
-        forecastGrid.add(new Label("Date"), 0, 0);
-        forecastGrid.add(new Label("Min Temp"), 1, 0);
-        forecastGrid.add(new Label("Max Temp"), 2, 0);
-        forecastGrid.add(new Label("Precipitation"), 3, 0);
-        forecastGrid.add(new Label("Wind Speed"), 4, 0);
-        forecastGrid.add(new Label("Humidity"), 5, 0);
-        forecastGrid.add(new Label("Soil Temp"), 6, 0);
-
-        // Extract data from JSON if available
-        String dailyJson = JsonParser.extractStringFromJson(rawWeatherResponse, "daily");
-        if (dailyJson == null || dailyJson.isEmpty()) {
-            // If no data, just show a message in the first row
-            forecastGrid.add(new Label("No weather data available"), 0, 1, 7, 1);
-            return;
+    private JsonRecord assemble(Map<YearMonth, JsonRecord> cellChunks, LocalDate startDate, LocalDate endDate) {
+        List<JsonRecord> parts = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            parts.add(cellChunks.get(month));
         }
+        JsonRecord joined = JsonRecord.concat(parts);
+        String[] times = joined.getStrings("time");
+        String startDateStr = startDate.toString();
+        String endDateStr = endDate.toString();
+        int from = 0;
+        while (from < times.length && (times[from] == null || times[from].compareTo(startDateStr) < 0)) {
+            from++;
+        }
+        int to = from;
+        while (to < times.length && times[to] != null && times[to].compareTo(endDateStr) <= 0) {
+            to++;
+        }
+        return joined.slice(from, to);
+    }
 
-        // Extract and parse date array first (required for iteration)
-        String datesJson = JsonParser.extractStringFromJson(dailyJson, "time");
-        String[] dates = JsonParser.parseJsonArray(datesJson);
-        if (dates == null || dates.length == 0) {
-            forecastGrid.add(new Label("No date data available"), 0, 1, 7, 1);
-            return;
+    /**
+     * Returns the dates and the given variables of a daily section; months from the local store or
+     * the network hold all variables.
+     */
+    private static JsonRecord select(JsonRecord daily, List<String> variables) {
+        JsonRecord selected = new JsonRecord().putArray("time", daily.getStrings("time"));
+        for (String variable : variables) {
+            double[] values = daily.getDoubles(variable);
+            if (values != null) {
+                selected.putArray(variable, values);
+            }
         }
+        return selected;
+    }
+
+    /**
+     * Processes the decoded historical weather response into a WeatherData object.
+     */
+    public void processHistoricalData(WeatherData weatherData, JsonRecord daily) {
+        if (daily != null) {
+            String[] dates = daily.getStrings("time");
+            double[] maxTemps = daily.getDoubles("temperature_2m_max");
+            double[] minTemps = daily.getDoubles("temperature_2m_min");
+            double[] precipSums = daily.getDoubles("precipitation_sum");
+            double[] windSpeeds = daily.getDoubles("windspeed_10m_mean");
+            double[] humidities = daily.getDoubles("relative_humidity_2m_mean");
+            double[] pressures = daily.getDoubles("surface_pressure_mean");
+            double[] soilTemps = daily.getDoubles("soil_temperature_0_to_7cm_mean");
 
-        // Extract all data arrays
-        String[] maxTemps = safeParseJsonArray(dailyJson, "temperature_2m_max");
-        String[] minTemps = safeParseJsonArray(dailyJson, "temperature_2m_min");
-        String[] precipSums = safeParseJsonArray(dailyJson, "precipitation_sum");
-        String[] windSpeeds = safeParseJsonArray(dailyJson, "windspeed_10m_mean");
-        String[] humidities = safeParseJsonArray(dailyJson, "relative_humidity_2m_mean");
-        String[] soilTemps = safeParseJsonArray(dailyJson, "soil_temperature_0_to_7cm_mean");
-
-        // Populate the grid with data
-        for (int i = 0; i < dates.length; i++) {
-            int row = i + 1; // Start from row 1 (after header)
-
-            // Add date
-            forecastGrid.add(new Label(DateFormatter.formatDate(dates[i])), 0, row);
-
-            // Add all values with safe access
-            forecastGrid.add(new Label(safeGetValueWithUnit(minTemps, i, "°C")), 1, row);
-            forecastGrid.add(new Label(safeGetValueWithUnit(maxTemps, i, "°C")), 2, row);
-            forecastGrid.add(new Label(safeGetValueWithUnit(precipSums, i, "mm")), 3, row);
-            forecastGrid.add(new Label(safeGetValueWithUnit(windSpeeds, i, "km/h")), 4, row);
-            forecastGrid.add(new Label(safeGetValueWithUnit(humidities, i, "%")), 5, row);
-            forecastGrid.add(new Label(safeGetValueWithUnit(soilTemps, i, "°C")), 6, row);
+            // Track whether we have valid data for initial weather properties
+            boolean hasInitialData = false;
+
+            // Process daily data - missing values stay NaN and are skipped by the chart
+            weatherData.ensureChartCapacity(dates.length);
+            for (int i = 0; i < dates.length; i++) {
+                double minTemp = JsonRecord.valueAt(minTemps, i);
+                double maxTemp = JsonRecord.valueAt(maxTemps, i);
+                double avgTemp = (minTemp + maxTemp) / 2;
+                double precipVal = JsonRecord.valueAt(precipSums, i);
+                double windSpeed = JsonRecord.valueAt(windSpeeds, i);
+                double humidity = JsonRecord.valueAt(humidities, i);
+                double pressure = JsonRecord.valueAt(pressures, i);
+                double soilTemp = JsonRecord.valueAt(soilTemps, i);
+
+                weatherData.addDailyDataPoint(windSpeed, soilTemp, minTemp, maxTemp, precipVal, pressure, humidity, dates[i]);
+
+                // Set initial weather properties from the first complete data point
+                if (!hasInitialData && !Double.isNaN(avgTemp) && !Double.isNaN(precipVal)
+                        && !Double.isNaN(windSpeed) && !Double.isNaN(pressure) && !Double.isNaN(soilTemp)) {
+                    hasInitialData = true;
+                    weatherData.setWindSpeed(windSpeed);
+                    weatherData.setSoilTemperature(soilTemp);
+                    weatherData.setHumidity(Double.isNaN(humidity) ? 0 : humidity);
+                    weatherData.setPressure(pressure);
+                }
+            }
+            // Window statistics in the UI are then answered from the index
+            weatherData.buildAggregates();
         }
     }
 
     /**
-     * Safely parses a JSON array from a JSON object
+     * Fetches the consecutive months [first, last] for the given cells in one archive request,
+     * splits the response into month chunks per cell and caches them. Completed months never change,
+     * so they are cached without TTL. They are also written to the local archive store. The archive
+     * is queried at the centre of each cell, so the chunks are valid for every point in it.
      */
-    private String[] safeParseJsonArray(String jsonObject, String key) {
-        try {
-            String jsonArray = JsonParser.extractStringFromJson(jsonObject, key);
-            return JsonParser.parseJsonArray(jsonArray);
-        } catch (Exception e) {
-            LOGGER.warning("Error parsing JSON array for key: " + key + " - " + e.getMessage());
-            return new String[0];
+    private void fetchMonths(List<String> cells, YearMonth first, YearMonth last, LocalDate endDate,
+                             Map<String, Map<YearMonth, JsonRecord>> chunks) throws IOException {
+        LocalDate settled = LocalDate.now().minusDays(ARCHIVE_DELAY_DAYS);
+        LocalDate fetchStart = first.atDay(1);
+        LocalDate fetchEnd = last.atEndOfMonth();
+        if (fetchEnd.isAfter(settled)) {
+            // Do not ask for days the archive cannot have yet, unless they were explicitly requested
+            fetchEnd = endDate.isAfter(settled) ? endDate : settled;
+            if (fetchEnd.isAfter(last.atEndOfMonth())) {
+                fetchEnd = last.atEndOfMonth();
+            }
+        }
+
+        StringBuilder latitudes = new StringBuilder();
+        StringBuilder longitudes = new StringBuilder();
+        for (String cell : cells) {
+            double[] center = GeoHash.decodeCenter(cell);
+            if (latitudes.length() > 0) {
+                latitudes.append(',');
+                longitudes.append(',');
+            }
+            latitudes.append(center[0]);
+            longitudes.append(center[1]);
+        }
+
+        LOGGER.info("Fetching historical data from API for " + cells.size() + " location(s)" +
+                " from " + fetchStart + " to " + fetchEnd);
+        String historicalWeatherApiUrl = ARCHIVE_URL + "?latitude=" + latitudes +
+                "&longitude=" + longitudes +
+                "&start_date=" + fetchStart +
+                "&end_date=" + fetchEnd +
+                "&daily=" + String.join(",", VARIABLES) +
+                "&timezone=auto";
+
+        HttpBody body = httpTransport.get(historicalWeatherApiUrl);
+        List<JsonRecord> records = OpenMeteoDecoder.decodeAll(body.openStream(), "daily");
+        if (records.size() != cells.size()) {
+            throw new IOException("Expected " + cells.size() + " locations in archive response, got " + records.size());
         }
+
+        Map<String, Map<String, byte[]>> settledChunks = new HashMap<>();
+        Map<String, Map<String, byte[]>> recentChunks = new HashMap<>();
+        for (int c = 0; c < cells.size(); c++) {
+            String cell = cells.get(c);
+            JsonRecord daily = records.get(c).getRecord("daily");
+            if (daily == null) {
+                throw new IOException("Archive response without daily data for cell: " + cell);
+            }
+
+            // Dates are sorted, so each month is one contiguous index range
+            String[] times = daily.getStrings("time");
+            int index = 0;
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                String prefix = month.toString();
+                int from = index;
+                while (index < times.length && times[index] != null && times[index].startsWith(prefix)) {
+                    index++;
+                }
+                JsonRecord chunk = daily.slice(from, index);
+                chunks.get(cell).put(month, chunk);
+                storeIfSettled(cell, month, chunk, settled);
+                Map<String, byte[]> fields = index > from ? DailySeriesCodec.encode(chunk) : null;
+                if (fields != null) {
+                    String key = cacheService.generateHistoricalCacheKey(cell, month);
+                    (month.atEndOfMonth().isAfter(settled) ? recentChunks : settledChunks).put(key, fields);
+                }
+            }
+        }
+        cacheService.putFields(settledChunks, 0);
+        cacheService.putFields(recentChunks, RECENT_MONTH_TTL);
     }
 
     /**
-     * Safely gets a value from an array with proper formatting or returns "N/A"
+     * Writes a month chunk to the local archive store once the month can no longer change.
      */
-    private String safeGetValueWithUnit(String[] array, int index, String unit) {
-        if (array == null || index >= array.length || array[index] == null || array[index].equals("null")) {
-            return "N/A";
+    private void storeIfSettled(String cell, YearMonth month, JsonRecord chunk, LocalDate settled) {
+        if (archiveStore != null && !month.atEndOfMonth().isAfter(settled)) {
+            archiveStore.writeMonth(cell, month, chunk);
         }
+    }
 
-        try {
-            // Try to parse and format as number for validation
-            Double.parseDouble(array[index]);
-            return array[index] + " " + unit;
-        } catch (NumberFormatException e) {
-            return "N/A";
+    /**
+     * Returns true if a month chunk reaches the last day needed from that month. A chunk of the
+     * current month may have been cached before later days were requested or available.
+     */
+    private boolean coversRequest(JsonRecord chunk, YearMonth month, LocalDate endDate) {
+        String[] times = chunk.getStrings("time");
+        if (times.length == 0 || times[times.length - 1] == null) {
+            return false;
+        }
+        LocalDate needed = endDate.isBefore(month.atEndOfMonth()) ? endDate : month.atEndOfMonth();
+        LocalDate settled = LocalDate.now().minusDays(ARCHIVE_DELAY_DAYS);
+        if (needed.isAfter(settled)) {
+            // Recent days may legitimately be missing from the archive; the short TTL refreshes them
+            needed = settled.isBefore(month.atDay(1)) ? month.atDay(1) : settled;
         }
+        return times[times.length - 1].compareTo(needed.toString()) >= 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,387 @@
+package com.example.weatherappjava.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, size-aware in-process cache used as the L1 tier in front of Redis.
+ * <p>
+ * Eviction follows the W-TinyLFU scheme: new entries enter a small LRU admission window;
+ * entries leaving the window must compete with the least recently used entry of the main
+ * segmented LRU, and the one with the higher estimated access frequency (count-min sketch)
+ * stays. This keeps one-off lookups from flushing frequently used locations out of memory.
+ * Entries are weighted by their approximate heap size and may carry an expiry.
+ */
+public class LocalCache {
+    private static final int ENTRY_OVERHEAD = 96; // Node, map entries and String headers (approximate)
+
+    private enum Region { WINDOW, PROBATION, PROTECTED }
+
+    private static final class Node {
+        final String key;
+        String value;
+        long weight;
+        long expiresAt; // System.nanoTime() deadline, Long.MAX_VALUE for no expiry
+        Region region;
+
+        Node(String key) {
+            this.key = key;
+        }
+    }
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private final Map<String, Node> data = new HashMap<>();
+    private final LinkedHashMap<String, Node> window = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Node> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Node> protectedRegion = new LinkedHashMap<>();
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    private final FrequencySketch sketch;
+    private long invalidationStamp;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache holding at most the given approximate number of bytes.
+     */
+    public LocalCache(long maximumWeight) {
+        this.maximumWeight = Math.max(maximumWeight, 1024);
+        this.windowMaximum = Math.max(this.maximumWeight / 100, 1);
+        this.protectedMaximum = (this.maximumWeight - windowMaximum) * 80 / 100;
+        this.sketch = new FrequencySketch((int) Math.min(Math.max(this.maximumWeight / 4096, 256), 1 << 20));
+    }
+
+    /**
+     * Returns the cached value, or null if it is missing or expired.
+     */
+    public synchronized String get(String key) {
+        Node node = data.get(key);
+        sketch.increment(key.hashCode());
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        if (node.expiresAt <= System.nanoTime()) {
+            remove(node);
+            misses++;
+            return null;
+        }
+        onAccess(node);
+        hits++;
+        return node.value;
+    }
+
+    /**
+     * Returns true if a non-expired value is cached for the key, without counting it as an access.
+     */
+    public synchronized boolean contains(String key) {
+        Node node = data.get(key);
+        return node != null && node.expiresAt > System.nanoTime();
+    }
+
+    /**
+     * Returns the remaining TTL of an entry in milliseconds, -1 if it does not expire, or -2 if it
+     * is missing or expired (the same convention as Redis PTTL).
+     */
+    public synchronized long remainingMillis(String key) {
+        Node node = data.get(key);
+        if (node == null) {
+            return -2;
+        }
+        if (node.expiresAt == Long.MAX_VALUE) {
+            return -1;
+        }
+        long remaining = node.expiresAt - System.nanoTime();
+        return remaining > 0 ? Math.max(1, remaining / 1_000_000L) : -2;
+    }
+
+    /**
+     * Stores a value. A non-positive TTL means the entry does not expire.
+     */
+    public synchronized void put(String key, String value, long ttlMillis) {
+        long weight = weigh(key, value);
+        if (weight > maximumWeight - windowMaximum) {
+            // Too large to ever fit the main region; keep whatever was there out as well
+            Node stale = data.get(key);
+            if (stale != null) {
+                remove(stale);
+            }
+            return;
+        }
+        long expiresAt = ttlMillis > 0 ? System.nanoTime() + ttlMillis * 1_000_000L : Long.MAX_VALUE;
+
+        Node node = data.get(key);
+        if (node != null) {
+            adjustWeight(node, weight - node.weight);
+            node.value = value;
+            node.weight = weight;
+            node.expiresAt = expiresAt;
+            onAccess(node);
+        } else {
+            node = new Node(key);
+            node.value = value;
+            node.weight = weight;
+            node.expiresAt = expiresAt;
+            node.region = Region.WINDOW;
+            data.put(key, node);
+            window.put(key, node);
+            windowWeight += weight;
+            sketch.increment(key.hashCode());
+        }
+        evict();
+    }
+
+    /**
+     * Stores a value read from Redis unless an invalidation arrived after the given stamp was
+     * taken (the value might already be outdated). Returns true if the value was stored.
+     */
+    public synchronized boolean putIfNotInvalidated(String key, String value, long ttlMillis, long stamp) {
+        if (stamp != invalidationStamp) {
+            return false;
+        }
+        put(key, value, ttlMillis);
+        return true;
+    }
+
+    /**
+     * Returns a stamp that changes whenever any entry is invalidated.
+     */
+    public synchronized long invalidationStamp() {
+        return invalidationStamp;
+    }
+
+    /**
+     * Removes a single entry.
+     */
+    public synchronized void invalidate(String key) {
+        invalidationStamp++;
+        Node node = data.get(key);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void invalidateAll() {
+        invalidationStamp++;
+        data.clear();
+        window.clear();
+        probation.clear();
+        protectedRegion.clear();
+        windowWeight = 0;
+        probationWeight = 0;
+        protectedWeight = 0;
+    }
+
+    public synchronized int size() {
+        return data.size();
+    }
+
+    public synchronized long weightedSize() {
+        return windowWeight + probationWeight + protectedWeight;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    private static long weigh(String key, String value) {
+        return ENTRY_OVERHEAD + 2L * key.length() + 2L * value.length();
+    }
+
+    private void onAccess(Node node) {
+        switch (node.region) {
+            case WINDOW:
+                window.remove(node.key);
+                window.put(node.key, node);
+                break;
+            case PROBATION:
+                // Second hit: promote to the protected segment
+                probation.remove(node.key);
+                probationWeight -= node.weight;
+                node.region = Region.PROTECTED;
+                protectedRegion.put(node.key, node);
+                protectedWeight += node.weight;
+                demoteProtectedOverflow();
+                break;
+            case PROTECTED:
+                protectedRegion.remove(node.key);
+                protectedRegion.put(node.key, node);
+                break;
+        }
+    }
+
+    private void demoteProtectedOverflow() {
+        while (protectedWeight > protectedMaximum && protectedRegion.size() > 1) {
+            Node lru = first(protectedRegion);
+            protectedRegion.remove(lru.key);
+            protectedWeight -= lru.weight;
+            lru.region = Region.PROBATION;
+            probation.put(lru.key, lru);
+            probationWeight += lru.weight;
+        }
+    }
+
+    private void evict() {
+        // Move overflow from the admission window into probation as candidates
+        while (windowWeight > windowMaximum && window.size() > 1) {
+            Node candidate = first(window);
+            window.remove(candidate.key);
+            windowWeight -= candidate.weight;
+            candidate.region = Region.PROBATION;
+            probation.put(candidate.key, candidate);
+            probationWeight += candidate.weight;
+
+            // Let the candidate compete with the main region's victim until everything fits
+            while (windowWeight + probationWeight + protectedWeight > maximumWeight && data.containsKey(candidate.key)) {
+                Node victim = firstOther(probation, candidate);
+                if (victim == null) {
+                    victim = first(protectedRegion);
+                }
+                if (victim == null) {
+                    remove(candidate);
+                    break;
+                }
+                int candidateFrequency = sketch.frequency(candidate.key.hashCode());
+                int victimFrequency = sketch.frequency(victim.key.hashCode());
+                remove(candidateFrequency > victimFrequency ? victim : candidate);
+            }
+        }
+        // A single oversized window entry may still exceed the bound
+        while (windowWeight + probationWeight + protectedWeight > maximumWeight && !data.isEmpty()) {
+            Node victim = first(probation);
+            if (victim == null) {
+                victim = first(protectedRegion);
+            }
+            if (victim == null) {
+                victim = first(window);
+            }
+            remove(victim);
+        }
+    }
+
+    private void adjustWeight(Node node, long delta) {
+        switch (node.region) {
+            case WINDOW: windowWeight += delta; break;
+            case PROBATION: probationWeight += delta; break;
+            case PROTECTED: protectedWeight += delta; break;
+        }
+    }
+
+    private void remove(Node node) {
+        data.remove(node.key);
+        switch (node.region) {
+            case WINDOW:
+                window.remove(node.key);
+                windowWeight -= node.weight;
+                break;
+            case PROBATION:
+                probation.remove(node.key);
+                probationWeight -= node.weight;
+                break;
+            case PROTECTED:
+                protectedRegion.remove(node.key);
+                protectedWeight -= node.weight;
+                break;
+        }
+    }
+
+    private static Node first(LinkedHashMap<String, Node> region) {
+        Iterator<Node> iterator = region.values().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static Node firstOther(LinkedHashMap<String, Node> region, Node excluded) {
+        for (Node node : region.values()) {
+            if (node != excluded) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Count-min sketch with 4-bit counters used to estimate access frequency. Counters are
+     * halved periodically so that old popularity fades out.
+     */
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int length = Integer.highestOneBit(Math.max(expectedEntries, 16) - 1) << 1;
+            this.table = new long[length];
+            this.tableMask = length - 1;
+            this.sampleSize = 10 * length;
+        }
+
+        int frequency(int hashCode) {
+            int hash = spread(hashCode);
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xFL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(int hashCode) {
+            int hash = spread(hashCode);
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int offset = (start + i) << 2;
+                long mask = 0xFL << offset;
+                if ((table[index] & mask) != mask) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & tableMask;
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
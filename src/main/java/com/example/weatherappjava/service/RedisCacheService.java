@@ -1,24 +1,100 @@
 package com.example.weatherappjava.service;
 
+import com.example.weatherappjava.metrics.Counter;
+import com.example.weatherappjava.metrics.Gauge;
+import com.example.weatherappjava.metrics.LatencyTimer;
+import com.example.weatherappjava.metrics.MetricsRegistry;
+import com.example.weatherappjava.util.AppConfig;
+import com.example.weatherappjava.util.GeoHash;
+import com.example.weatherappjava.util.IoExecutor;
+
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Transaction;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.SafeEncoder;
 
-import java.time.LocalDate;
-import java.util.logging.Level;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 import java.util.logging.Logger;
 
 /**
- * Singleton service for caching weather data in Redis.
+ * Singleton service for caching weather data in Redis, with a bounded in-process L1 cache
+ * in front of it. L1 entries are kept coherent through Redis invalidation tracking and also
+ * serve as a fallback while Redis is unavailable.
+ * <p>
+ * Pooled connections are not tested on borrow or return, so a cache hit costs one round trip.
+ * Idle connections are validated by the pool's background evictor instead. After a connection
+ * failure Redis is marked down: calls go straight to the fallback until a background PING
+ * succeeds, instead of each waiting for a connect timeout.
  */
 public class RedisCacheService {
     private static final Logger LOGGER = Logger.getLogger(RedisCacheService.class.getName());
 
     // Cache TTL constants (in seconds)
-    private static final int FORECAST_TTL = 3600; // 1 hour for forecasts
+    private static final int FORECAST_TTL = AppConfig.getInt("weather.cache.forecast.ttlSeconds", 3600); // 1 hour for forecasts
+    // After the TTL, forecasts are still served for this long while being revalidated in the background
+    private static final int FORECAST_STALE = Math.max(0, AppConfig.getInt("weather.cache.forecast.staleSeconds", 21600));
+
+    private static final String REDIS_HOST = AppConfig.getString("weather.redis.host", "localhost");
+    private static final int REDIS_PORT = AppConfig.getInt("weather.redis.port", 6379);
+    private static final long HEALTH_CHECK_SECONDS = Math.max(1, AppConfig.getLong("weather.redis.healthCheckSeconds", 5));
+
+    // Geohash precision of cache cells: 5 characters is about 4.9 km, close to the model grid spacing
+    private final int forecastPrecision = AppConfig.getInt("weather.cache.geohash.forecastPrecision", 5);
+    private final int historicalPrecision = AppConfig.getInt("weather.cache.geohash.historicalPrecision", 5);
 
     private final JedisPool jedisPool;
+    private final LocalCache localCache;
+    private final RedisInvalidationListener invalidationListener;
+    private final ScheduledExecutorService healthChecker;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlightLoads = new ConcurrentHashMap<>();
+    // False after a connection failure, until the background health check reaches Redis again
+    private volatile boolean redisUp = true;
+
+    // Redis round-trip latency per operation and loads currently running
+    private final LatencyTimer existsTimer = MetricsRegistry.timer("redis.exists");
+    private final LatencyTimer getTimer = MetricsRegistry.timer("redis.get");
+    private final LatencyTimer getManyTimer = MetricsRegistry.timer("redis.getMany");
+    private final LatencyTimer ttlTimer = MetricsRegistry.timer("redis.ttl");
+    private final LatencyTimer setTimer = MetricsRegistry.timer("redis.set");
+    private final LatencyTimer putManyTimer = MetricsRegistry.timer("redis.putMany");
+    private final LatencyTimer getFieldsTimer = MetricsRegistry.timer("redis.getFields");
+    private final LatencyTimer putFieldsTimer = MetricsRegistry.timer("redis.putFields");
+    private final Counter outages = MetricsRegistry.counter("redis.down");
+    // Calls answered locally without trying Redis while it is marked down
+    private final Counter skipped = MetricsRegistry.counter("redis.skipped");
+    // Calls that timed out waiting for a pooled connection
+    private final Counter poolExhausted = MetricsRegistry.counter("redis.pool.exhausted");
+    private final Gauge loadsInFlight = MetricsRegistry.gauge("cache.loads.inflight");
     private static RedisCacheService instance;
 
     /**
@@ -35,84 +111,806 @@ public class RedisCacheService {
      * Private constructor initializing Redis connection pool.
      */
     private RedisCacheService() {
-        // Configure Redis connection pool
+        // Configure Redis connection pool; connections are validated by the idle evictor only
         JedisPoolConfig poolConfig = new JedisPoolConfig();
-        poolConfig.setMaxTotal(10);
-        poolConfig.setMaxIdle(5);
-        poolConfig.setMinIdle(1);
-        poolConfig.setTestOnBorrow(true);
-        poolConfig.setTestOnReturn(true);
+        poolConfig.setMaxTotal(AppConfig.getInt("weather.redis.pool.maxTotal", 10));
+        poolConfig.setMaxIdle(AppConfig.getInt("weather.redis.pool.maxIdle", 5));
+        poolConfig.setMinIdle(AppConfig.getInt("weather.redis.pool.minIdle", 1));
+        poolConfig.setMaxWait(Duration.ofMillis(AppConfig.getLong("weather.redis.pool.maxWaitMs", 2000)));
+        poolConfig.setTestOnBorrow(false);
+        poolConfig.setTestOnReturn(false);
         poolConfig.setTestWhileIdle(true);
+        poolConfig.setTimeBetweenEvictionRuns(Duration.ofSeconds(AppConfig.getLong("weather.redis.pool.evictionSeconds", 30)));
+        poolConfig.setNumTestsPerEvictionRun(-1); // all idle connections per run
+
+        int timeoutMillis = AppConfig.getInt("weather.redis.timeoutMs", 2000);
+        HostAndPort address = new HostAndPort(REDIS_HOST, REDIS_PORT);
+        JedisClientConfig clientConfig = DefaultJedisClientConfig.builder()
+                .connectionTimeoutMillis(timeoutMillis)
+                .socketTimeoutMillis(timeoutMillis)
+                .password(AppConfig.getString("weather.redis.password", null))
+                .build();
+        this.jedisPool = new JedisPool(poolConfig, address, clientConfig);
+        LOGGER.info("Initialized Redis connection pool for " + address);
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "redis-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::checkHealth, HEALTH_CHECK_SECONDS, HEALTH_CHECK_SECONDS, TimeUnit.SECONDS);
+        this.healthChecker = executor;
+
+        // In-process L1 cache, coherent with Redis through invalidation tracking
+        this.localCache = new LocalCache(AppConfig.getLong("weather.cache.local.maxBytes", 64L * 1024 * 1024));
+        if (AppConfig.getBoolean("weather.cache.local.tracking", true)) {
+            this.invalidationListener = new RedisInvalidationListener(address, clientConfig, localCache);
+            this.invalidationListener.start();
+        } else {
+            this.invalidationListener = null;
+        }
+    }
+
+    /**
+     * Borrows a pooled connection, failing at once while Redis is marked down.
+     */
+    private Jedis borrow() {
+        if (!redisUp) {
+            skipped.increment();
+            throw new RedisDownException();
+        }
+        return jedisPool.getResource();
+    }
+
+    /**
+     * Handles a failed timed Redis call: records it as an error of its timer, then as in
+     * {@link #redisFailed}. Calls skipped while Redis is marked down never reached it, so they
+     * are not recorded.
+     */
+    private void callFailed(LatencyTimer timer, long start, JedisException e) {
+        if (e instanceof RedisDownException) {
+            return;
+        }
+        timer.recordError(start);
+        redisFailed(e);
+    }
+
+    /**
+     * Handles a failed Redis call; the caller falls back to L1 and its loader instead of failing.
+     * Only connection failures mark Redis down and trigger an immediate health check (a single
+     * broken connection is replaced at once). A borrow timeout on an exhausted pool, a command
+     * error (e.g. WRONGTYPE) or any other error only fails that call.
+     */
+    private void redisFailed(JedisException e) {
+        if (e instanceof JedisDataException) {
+            LOGGER.warning("Redis command failed: " + e.getMessage());
+        } else if (isPoolExhausted(e)) {
+            poolExhausted.increment();
+            LOGGER.fine("Redis pool exhausted, treating the call as a miss: " + e.getMessage());
+        } else if (!isConnectionFailure(e)) {
+            LOGGER.warning("Redis call failed: " + e.getMessage());
+        } else if (redisUp) {
+            redisUp = false;
+            outages.increment();
+            LOGGER.warning("Failed to connect to Redis, using local cache until it is back: " + e.getMessage());
+            healthChecker.execute(this::checkHealth);
+        }
+    }
+
+    /**
+     * Returns true if no pooled connection became free in time (the pool wraps the borrow
+     * timeout's NoSuchElementException).
+     */
+    private static boolean isPoolExhausted(JedisException e) {
+        return e.getCause() instanceof NoSuchElementException && !isConnectionFailure(e);
+    }
+
+    /**
+     * Returns true if the error, or one of its causes, is a failed or broken connection.
+     */
+    private static boolean isConnectionFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JedisConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs on the health-check thread: while Redis is marked down, PINGs it and marks it up again
+     * once it answers.
+     */
+    private void checkHealth() {
+        if (redisUp) {
+            return;
+        }
+        try (Jedis probe = jedisPool.getResource()) {
+            probe.ping();
+            redisUp = true;
+            LOGGER.info("Redis reachable again");
+        } catch (JedisException e) {
+            LOGGER.fine("Redis health check failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns true unless a Redis call failed to connect and no health check has succeeded since.
+     */
+    public boolean isRedisUp() {
+        return redisUp;
+    }
 
-        // Connect to Redis (default: localhost:6379)
-        this.jedisPool = new JedisPool(poolConfig, "localhost", 6379);
-        LOGGER.info("Initialized Redis connection");
+    /**
+     * Returns true if local entries are known to be coherent with Redis.
+     */
+    private boolean isLocalCacheCoherent() {
+        return invalidationListener != null && invalidationListener.isTracking();
     }
 
     /**
      * Checks if data exists in the cache for a given key.
      */
     public boolean hasCache(String key) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.exists(key);
-        } catch (JedisConnectionException e) {
-            LOGGER.log(Level.WARNING, "Failed to connect to Redis: " + e.getMessage());
-            return false;
+        if (isLocalCacheCoherent() && localCache.contains(key)) {
+            return true;
+        }
+        long start = System.nanoTime();
+        try (Jedis jedis = borrow()) {
+            boolean exists = jedis.exists(key);
+            existsTimer.recordSince(start);
+            return exists;
+        } catch (JedisException e) {
+            callFailed(existsTimer, start, e);
+            return localCache.contains(key);
         }
     }
 
+    /**
+     * Returns the remaining TTL in milliseconds of several keys, read in one pipelined round trip.
+     * Keys that are missing have no entry; keys without expiry map to -1. Returns an empty map
+     * while Redis is unreachable.
+     */
+    public Map<String, Long> getRemainingTtls(List<String> keys) {
+        Map<String, Long> remaining = new HashMap<>();
+        if (keys.isEmpty()) {
+            return remaining;
+        }
+        long start = System.nanoTime();
+        try (Jedis jedis = borrow()) {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<Long>> ttls = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                ttls.add(pipeline.pttl(key));
+            }
+            pipeline.sync();
+            ttlTimer.recordSince(start);
+            for (int i = 0; i < keys.size(); i++) {
+                long ttl = ttls.get(i).get();
+                // PTTL: -2 = no such key, -1 = no expiry
+                if (ttl != -2) {
+                    remaining.put(keys.get(i), ttl);
+                }
+            }
+        } catch (JedisException e) {
+            callFailed(ttlTimer, start, e);
+        }
+        return remaining;
+    }
+
     /**
      * Retrieves data from the cache.
      */
     public String getFromCache(String key) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.get(key);
-        } catch (JedisConnectionException e) {
-            LOGGER.log(Level.WARNING, "Failed to connect to Redis: " + e.getMessage());
-            return null;
+        Lookup lookup = lookup(key);
+        countLookup(key, lookup.value == null ? "miss" : lookup.redisDown ? "fallback" : "hit");
+        return lookup.value;
+    }
+
+    /**
+     * Reads a value and its remaining TTL from L1 (if coherent) or Redis, falling back to L1
+     * while Redis is unreachable.
+     */
+    private Lookup lookup(String key) {
+        if (isLocalCacheCoherent()) {
+            String local = localCache.get(key);
+            if (local != null) {
+                return new Lookup(local, localCache.remainingMillis(key), false);
+            }
+        }
+
+        long stamp = localCache.invalidationStamp();
+        long start = System.nanoTime();
+        try (Jedis jedis = borrow()) {
+            // Read value and remaining TTL in one round trip so the L1 copy expires with Redis
+            Pipeline pipeline = jedis.pipelined();
+            Response<String> value = pipeline.get(key);
+            Response<Long> ttl = pipeline.pttl(key);
+            pipeline.sync();
+            getTimer.recordSince(start);
+
+            String data = value.get();
+            if (data != null) {
+                localCache.putIfNotInvalidated(key, data, ttl.get(), stamp);
+            }
+            return new Lookup(data, ttl.get(), false);
+        } catch (JedisException e) {
+            callFailed(getTimer, start, e);
+            String local = localCache.get(key);
+            return new Lookup(local, local != null ? localCache.remainingMillis(key) : -2, true);
+        }
+    }
+
+    /**
+     * Retrieves several entries at once. Keys not held in L1 are read from Redis with one MGET,
+     * pipelined with their remaining TTLs in a single round trip. The returned map contains only
+     * the keys that were found.
+     */
+    public Map<String, String> getMany(List<String> keys) {
+        return getMany(keys, 0);
+    }
+
+    /**
+     * Same as {@link #getMany(List)}, leaving out entries with at most staleMillis of their TTL
+     * left, i.e. past the soft expiry of a stale-while-revalidate entry.
+     */
+    public Map<String, String> getMany(List<String> keys, long staleMillis) {
+        Map<String, String> found = new HashMap<>();
+        List<String> remaining = new ArrayList<>();
+        boolean coherent = isLocalCacheCoherent();
+        for (String key : keys) {
+            String local = coherent ? localCache.get(key) : null;
+            if (local != null && isStale(localCache.remainingMillis(key), staleMillis)) {
+                countLookup(key, "miss");
+                continue;
+            }
+            if (local != null) {
+                found.put(key, local);
+                countLookup(key, "hit");
+            } else {
+                remaining.add(key);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return found;
+        }
+
+        long stamp = localCache.invalidationStamp();
+        long start = System.nanoTime();
+        try (Jedis jedis = borrow()) {
+            Pipeline pipeline = jedis.pipelined();
+            Response<List<String>> values = pipeline.mget(remaining.toArray(new String[0]));
+            List<Response<Long>> ttls = new ArrayList<>(remaining.size());
+            for (String key : remaining) {
+                ttls.add(pipeline.pttl(key));
+            }
+            pipeline.sync();
+            getManyTimer.recordSince(start);
+
+            List<String> data = values.get();
+            for (int i = 0; i < remaining.size(); i++) {
+                String value = data.get(i);
+                if (value != null && isStale(ttls.get(i).get(), staleMillis)) {
+                    value = null;
+                }
+                if (value != null) {
+                    found.put(remaining.get(i), value);
+                    localCache.putIfNotInvalidated(remaining.get(i), value, ttls.get(i).get(), stamp);
+                }
+                countLookup(remaining.get(i), value != null ? "hit" : "miss");
+            }
+        } catch (JedisException e) {
+            callFailed(getManyTimer, start, e);
+            for (String key : remaining) {
+                String local = localCache.get(key);
+                if (local != null && isStale(localCache.remainingMillis(key), staleMillis)) {
+                    local = null;
+                }
+                if (local != null) {
+                    found.put(key, local);
+                }
+                countLookup(key, local != null ? "fallback" : "miss");
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the cached value for the key, or loads it with the given loader and caches it.
+     * Hits cost a single lookup (L1 or one Redis GET). Concurrent misses for the same key share
+     * one load: only the first caller runs the loader, the others wait for its result.
+     *
+     * @param ttlSeconds TTL for a loaded value, 0 for no expiry
+     */
+    public CacheResult getOrLoad(String key, int ttlSeconds, CacheLoader loader) throws IOException {
+        return getOrLoad(key, value -> ttlSeconds, loader);
+    }
+
+    /**
+     * Same as {@link #getOrLoad(String, int, CacheLoader)}, with the TTL chosen per loaded value
+     * (e.g. a shorter TTL for a cached "not found" marker).
+     */
+    public CacheResult getOrLoad(String key, ToIntFunction<String> ttlForValue, CacheLoader loader) throws IOException {
+        String cached = getFromCache(key);
+        if (cached != null) {
+            return new CacheResult(cached, true);
+        }
+        return getOrLoadMissing(key, ttlForValue, loader);
+    }
+
+    /**
+     * Loads a key that was not found, sharing the load with concurrent callers.
+     */
+    private CacheResult getOrLoadMissing(String key, ToIntFunction<String> ttlForValue, CacheLoader loader) throws IOException {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> existing;
+        while ((existing = inFlightLoads.putIfAbsent(key, load)) != null) {
+            LOGGER.info("Waiting for in-flight load of key: " + key);
+            String shared = await(existing);
+            if (shared != null) {
+                return new CacheResult(shared, false);
+            }
+            // The owner was cancelled and gave the load up; take it over (or wait for whoever did)
+        }
+
+        loadsInFlight.increment();
+        try {
+            // A load that finished between our miss and registering may already be in L1
+            String justLoaded = localCache.get(key);
+            if (justLoaded != null) {
+                load.complete(justLoaded);
+                return new CacheResult(justLoaded, true);
+            }
+
+            String value = loader.load();
+            saveToCache(key, value, ttlForValue.applyAsInt(value));
+            load.complete(value);
+            return new CacheResult(value, false);
+        } catch (IOException | RuntimeException e) {
+            failLoad(key, load, e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+            loadsInFlight.decrement();
+        }
+    }
+
+    /**
+     * Stale-while-revalidate variant of {@link #getOrLoad(String, int, CacheLoader)}. Values are
+     * stored for freshSeconds + staleSeconds; once only the stale window is left, the cached value
+     * is still returned at once (marked stale) and one background load on the I/O executor
+     * replaces it. Misses load synchronously as in getOrLoad.
+     */
+    public CacheResult getOrLoadStale(String key, int freshSeconds, int staleSeconds, CacheLoader loader) throws IOException {
+        Lookup lookup = lookup(key);
+        if (lookup.value == null) {
+            countLookup(key, "miss");
+            return getOrLoadMissing(key, value -> freshSeconds + staleSeconds, loader);
+        }
+        boolean stale = isStale(lookup.ttlMillis, staleSeconds * 1000L);
+        countLookup(key, stale ? "stale" : lookup.redisDown ? "fallback" : "hit");
+        if (stale) {
+            revalidate(key, freshSeconds + staleSeconds, loader);
+        }
+        return new CacheResult(lookup.value, true, stale);
+    }
+
+    private static boolean isStale(long ttlMillis, long staleMillis) {
+        return ttlMillis >= 0 && ttlMillis <= staleMillis;
+    }
+
+    /**
+     * Starts a background load of the key unless one is already running.
+     */
+    private void revalidate(String key, int ttlSeconds, CacheLoader loader) {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        if (inFlightLoads.putIfAbsent(key, load) != null) {
+            return;
+        }
+        loadsInFlight.increment();
+        IoExecutor.getInstance().execute(() -> {
+            try {
+                String value = loader.load();
+                saveToCache(key, value, ttlSeconds);
+                load.complete(value);
+                LOGGER.info("Revalidated stale entry: " + key);
+            } catch (IOException | RuntimeException e) {
+                // The stale value stays until its hard expiry; the next read tries again
+                failLoad(key, load, e);
+                LOGGER.warning("Background revalidation of " + key + " failed: " + e.getMessage());
+            } finally {
+                inFlightLoads.remove(key, load);
+                loadsInFlight.decrement();
+            }
+        });
+    }
+
+    /**
+     * Fails a shared load. A load given up because its owner was cancelled is removed first and
+     * marked as abandoned, so a waiter takes it over instead of receiving a cancellation that is
+     * not its own.
+     */
+    private void failLoad(String key, CompletableFuture<String> load, Exception e) {
+        if (Thread.currentThread().isInterrupted()
+                || (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException))) {
+            inFlightLoads.remove(key, load);
+            load.completeExceptionally(new AbandonedLoadException());
+        } else {
+            load.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Waits for a shared load. Returns null if its owner abandoned it.
+     */
+    private static String await(CompletableFuture<String> load) throws IOException {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a shared load");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AbandonedLoadException) {
+                return null;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
         }
     }
 
     /**
-     * Saves data to the cache with a specified TTL.
+     * Saves data to the cache with the forecast TTL, or without TTL for historical data.
      */
     public void saveToCache(String key, String data, boolean isForecast) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            if (isForecast) {
-                jedis.setex(key, FORECAST_TTL, data);
-                LOGGER.info("Cached forecast data with key: " + key + " (TTL: " + FORECAST_TTL + "s)");
+        saveToCache(key, data, isForecast ? getForecastStorageTtl() : 0);
+    }
+
+    /**
+     * Saves data to the cache with the given TTL in seconds (0 for no expiry).
+     */
+    public void saveToCache(String key, String data, int ttlSeconds) {
+        // Keep a local copy; the invalidation caused by this write drops it once Redis has the value
+        localCache.put(key, data, ttlSeconds * 1000L);
+        long start = System.nanoTime();
+        try (Jedis jedis = borrow()) {
+            if (ttlSeconds > 0) {
+                jedis.setex(key, ttlSeconds, data);
+                LOGGER.info("Cached data with key: " + key + " (TTL: " + ttlSeconds + "s)");
             } else {
                 jedis.set(key, data);
-                LOGGER.info("Cached historical data with key: " + key + " (no TTL)");
+                LOGGER.info("Cached data with key: " + key + " (no TTL)");
+            }
+            setTimer.recordSince(start);
+        } catch (JedisException e) {
+            callFailed(setTimer, start, e);
+        }
+    }
+
+    /**
+     * Saves several entries with the same TTL in seconds (0 for no expiry) in one round trip:
+     * a single MSET without TTL, otherwise pipelined SETEX commands.
+     */
+    public void putMany(Map<String, String> entries, int ttlSeconds) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            localCache.put(entry.getKey(), entry.getValue(), ttlSeconds * 1000L);
+        }
+        long start = System.nanoTime();
+        try (Jedis jedis = borrow()) {
+            if (ttlSeconds > 0) {
+                Pipeline pipeline = jedis.pipelined();
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    pipeline.setex(entry.getKey(), ttlSeconds, entry.getValue());
+                }
+                pipeline.sync();
+            } else {
+                String[] keysAndValues = new String[entries.size() * 2];
+                int i = 0;
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    keysAndValues[i++] = entry.getKey();
+                    keysAndValues[i++] = entry.getValue();
+                }
+                jedis.mset(keysAndValues);
+            }
+            putManyTimer.recordSince(start);
+            LOGGER.info("Cached " + entries.size() + " entries" + (ttlSeconds > 0 ? " (TTL: " + ttlSeconds + "s)" : " (no TTL)"));
+        } catch (JedisException e) {
+            callFailed(putManyTimer, start, e);
+        }
+    }
+
+    /**
+     * Reads the given fields of several hashes with one pipelined HMGET (plus PTTL) per key, in a
+     * single round trip, so only the requested variables are transferred. Returns the fields found
+     * per key; keys with none of the fields are left out. A lookup counts as a hit only if every
+     * requested field is present. Fields read are kept in L1 under the hash key, so hashes whose
+     * requested fields are all held there skip Redis while L1 is coherent, and are still served
+     * while Redis is unreachable.
+     */
+    public Map<String, Map<String, byte[]>> getFields(List<String> keys, List<String> fields) {
+        Map<String, Map<String, byte[]>> found = new HashMap<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+        List<String> remaining = new ArrayList<>(keys.size());
+        boolean coherent = isLocalCacheCoherent();
+        for (String key : keys) {
+            Map<String, byte[]> local = coherent ? localFields(key, fields) : null;
+            if (local != null && local.size() == fields.size()) {
+                found.put(key, local);
+                countLookup(key, "hit");
+            } else {
+                remaining.add(key);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return found;
+        }
+        byte[][] rawFields = new byte[fields.size()][];
+        for (int f = 0; f < fields.size(); f++) {
+            rawFields[f] = SafeEncoder.encode(fields.get(f));
+        }
+
+        long stamp = localCache.invalidationStamp();
+        long start = System.nanoTime();
+        try (Jedis jedis = borrow()) {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<List<byte[]>>> responses = new ArrayList<>(remaining.size());
+            List<Response<Long>> ttls = new ArrayList<>(remaining.size());
+            for (String key : remaining) {
+                responses.add(pipeline.hmget(SafeEncoder.encode(key), rawFields));
+                ttls.add(pipeline.pttl(key));
+            }
+            pipeline.sync();
+            getFieldsTimer.recordSince(start);
+
+            for (int k = 0; k < remaining.size(); k++) {
+                String key = remaining.get(k);
+                List<byte[]> values = readFields(responses.get(k));
+                Map<String, byte[]> present = new HashMap<>();
+                for (int f = 0; values != null && f < fields.size(); f++) {
+                    if (values.get(f) != null) {
+                        present.put(fields.get(f), values.get(f));
+                    }
+                }
+                if (!present.isEmpty()) {
+                    found.put(key, present);
+                    keepFields(key, present, ttls.get(k).get(), stamp);
+                }
+                countLookup(key, present.size() == fields.size() ? "hit" : "miss");
+            }
+        } catch (JedisException e) {
+            callFailed(getFieldsTimer, start, e);
+            for (String key : remaining) {
+                Map<String, byte[]> local = localFields(key, fields);
+                if (local != null) {
+                    found.put(key, local);
+                }
+                countLookup(key, local != null && local.size() == fields.size() ? "fallback" : "miss");
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the given fields of a hash held in L1 (those present), or null if none are held.
+     */
+    private Map<String, byte[]> localFields(String key, List<String> fields) {
+        String packed = localCache.get(key);
+        if (packed == null) {
+            return null;
+        }
+        Map<String, byte[]> all = unpackFields(packed);
+        Map<String, byte[]> present = new HashMap<>();
+        for (String field : fields) {
+            byte[] value = all.get(field);
+            if (value != null) {
+                present.put(field, value);
+            }
+        }
+        return present.isEmpty() ? null : present;
+    }
+
+    /**
+     * Adds fields read from Redis to the L1 copy of a hash, unless an invalidation arrived since
+     * the read started. Hashes are replaced whole, so fields read at different times without an
+     * invalidation in between belong to the same version.
+     */
+    private void keepFields(String key, Map<String, byte[]> fields, long ttlMillis, long stamp) {
+        if (ttlMillis == -2) {
+            return; // expired right after the read
+        }
+        Map<String, byte[]> merged = new HashMap<>(fields);
+        String packed = localCache.get(key);
+        if (packed != null) {
+            unpackFields(packed).forEach(merged::putIfAbsent);
+        }
+        localCache.putIfNotInvalidated(key, packFields(merged), ttlMillis, stamp);
+    }
+
+    /**
+     * Packs hash fields into one L1 value: per field a length-prefixed name and value. Bytes map
+     * one-to-one to ISO-8859-1 characters, which compact strings store in one byte each.
+     */
+    static String packFields(Map<String, byte[]> fields) {
+        int size = Integer.BYTES;
+        List<byte[]> names = new ArrayList<>(fields.size());
+        for (Map.Entry<String, byte[]> field : fields.entrySet()) {
+            byte[] name = SafeEncoder.encode(field.getKey());
+            names.add(name);
+            size += 2 * Integer.BYTES + name.length + field.getValue().length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(fields.size());
+        int i = 0;
+        for (byte[] value : fields.values()) {
+            byte[] name = names.get(i++);
+            buffer.putInt(name.length).put(name).putInt(value.length).put(value);
+        }
+        return new String(buffer.array(), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reverses {@link #packFields}. Returns an empty map for a value in another format.
+     */
+    static Map<String, byte[]> unpackFields(String packed) {
+        Map<String, byte[]> fields = new HashMap<>();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(packed.getBytes(StandardCharsets.ISO_8859_1));
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[buffer.getInt()];
+                buffer.get(name);
+                byte[] value = new byte[buffer.getInt()];
+                buffer.get(value);
+                fields.put(SafeEncoder.encode(name), value);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            fields.clear();
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the values of one HMGET, or null if the key holds another type (e.g. a value
+     * written by an older version of the application).
+     */
+    private static List<byte[]> readFields(Response<List<byte[]>> response) {
+        try {
+            return response.get();
+        } catch (JedisDataException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replaces several hashes with the given fields, with the same TTL in seconds (0 for no expiry),
+     * in one MULTI/EXEC round trip. Each hash is written as a whole, so readers never see fields of
+     * two versions; L1 keeps a copy of each under the hash key.
+     */
+    public void putFields(Map<String, Map<String, byte[]>> entries, int ttlSeconds) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        // Keep local copies, as saveToCache does; they serve the months while Redis is unreachable
+        for (Map.Entry<String, Map<String, byte[]>> entry : entries.entrySet()) {
+            localCache.put(entry.getKey(), packFields(entry.getValue()), ttlSeconds * 1000L);
+        }
+        long start = System.nanoTime();
+        try (Jedis jedis = borrow()) {
+            Transaction transaction = jedis.multi();
+            for (Map.Entry<String, Map<String, byte[]>> entry : entries.entrySet()) {
+                byte[] key = SafeEncoder.encode(entry.getKey());
+                Map<byte[], byte[]> fields = new HashMap<>();
+                for (Map.Entry<String, byte[]> field : entry.getValue().entrySet()) {
+                    fields.put(SafeEncoder.encode(field.getKey()), field.getValue());
+                }
+                transaction.del(key);
+                transaction.hset(key, fields);
+                if (ttlSeconds > 0) {
+                    transaction.expire(key, ttlSeconds);
+                }
             }
-        } catch (JedisConnectionException e) {
-            LOGGER.log(Level.WARNING, "Failed to connect to Redis: " + e.getMessage());
+            transaction.exec();
+            putFieldsTimer.recordSince(start);
+            LOGGER.info("Cached " + entries.size() + " hashes" + (ttlSeconds > 0 ? " (TTL: " + ttlSeconds + "s)" : " (no TTL)"));
+        } catch (JedisException e) {
+            callFailed(putFieldsTimer, start, e);
         }
     }
 
     /**
-     * Generates a cache key for forecast data.
+     * Counts a lookup outcome (hit, miss, stale for a value past its TTL being revalidated, or
+     * fallback for an L1 copy served while Redis is unreachable) under the key's namespace:
+     * forecast, historical or geocode.
+     */
+    private static void countLookup(String key, String outcome) {
+        int colon = key.indexOf(':');
+        String namespace = colon > 0 ? key.substring(0, colon) : "other";
+        MetricsRegistry.counter("cache." + namespace + "." + outcome).increment();
+    }
+
+    /**
+     * Returns the TTL used for forecast entries, in seconds. Past it an entry is stale but still
+     * served for {@link #getForecastStaleSeconds()} while it is revalidated.
+     */
+    public int getForecastTtl() {
+        return FORECAST_TTL;
+    }
+
+    /**
+     * Returns how long forecasts are served stale after their TTL, in seconds.
+     */
+    public int getForecastStaleSeconds() {
+        return FORECAST_STALE;
+    }
+
+    /**
+     * Returns the TTL forecast entries are stored with: the fresh TTL plus the stale window.
+     */
+    public int getForecastStorageTtl() {
+        return FORECAST_TTL + FORECAST_STALE;
+    }
+
+    /**
+     * Returns the geohash cell that forecast data for a coordinate is cached under.
+     */
+    public String forecastCell(double latitude, double longitude) {
+        return GeoHash.encode(latitude, longitude, forecastPrecision);
+    }
+
+    /**
+     * Returns the geohash cell that historical data for a coordinate is cached under.
+     */
+    public String historicalCell(double latitude, double longitude) {
+        return GeoHash.encode(latitude, longitude, historicalPrecision);
+    }
+
+    /**
+     * Generates a cache key for a geocoding lookup. Names differing only in case, surrounding or
+     * repeated whitespace, or Unicode composition share one key.
+     */
+    public String generateGeocodeCacheKey(String city, String language) {
+        String normalized = Normalizer.normalize(city, Normalizer.Form.NFC)
+                .trim()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+        return "geocode:" + language + ":" + normalized;
+    }
+
+    /**
+     * Generates a cache key for forecast data of a geohash cell.
      */
-    public String generateForecastCacheKey(double latitude, double longitude, int forecastDays) {
-        return String.format("forecast:%f:%f:%d", latitude, longitude, forecastDays);
+    public String generateForecastCacheKey(String cell, int forecastDays) {
+        return "forecast:" + cell + ":" + forecastDays;
     }
 
     /**
-     * Generates a cache key for historical data.
+     * Generates the cache key of the hash holding one calendar month of historical data of a
+     * geohash cell (one field per variable, see {@link #getFields}).
      */
-    public String generateHistoricalCacheKey(double latitude, double longitude, LocalDate startDate, LocalDate endDate) {
-        return String.format("historical:%f:%f:%s:%s", latitude, longitude, startDate, endDate);
+    public String generateHistoricalCacheKey(String cell, YearMonth month) {
+        return "historical:" + cell + ":" + month + ":series";
     }
 
     /**
      * Clears all data from the Redis cache.
      */
     public void clearCache() {
-        try (Jedis jedis = jedisPool.getResource()) {
+        localCache.invalidateAll();
+        try (Jedis jedis = borrow()) {
             jedis.flushAll();
             LOGGER.info("Cache cleared");
-        } catch (JedisConnectionException e) {
-            LOGGER.log(Level.WARNING, "Failed to connect to Redis: " + e.getMessage());
+        } catch (JedisException e) {
+            redisFailed(e);
         }
     }
 
@@ -120,9 +918,57 @@ public class RedisCacheService {
      * Closes the Redis connection pool.
      */
     public void close() {
+        healthChecker.shutdownNow();
+        if (invalidationListener != null) {
+            invalidationListener.stop();
+        }
         if (jedisPool != null && !jedisPool.isClosed()) {
             jedisPool.close();
             LOGGER.info("Redis connection closed");
         }
     }
+
+    /**
+     * Result of a single-key lookup: the value (null if missing), its remaining TTL in
+     * milliseconds (PTTL convention) and whether Redis was unreachable.
+     */
+    private static class Lookup {
+        final String value;
+        final long ttlMillis;
+        final boolean redisDown;
+
+        Lookup(String value, long ttlMillis, boolean redisDown) {
+            this.value = value;
+            this.ttlMillis = ttlMillis;
+            this.redisDown = redisDown;
+        }
+    }
+
+    /**
+     * Thrown by {@link #borrow()} while Redis is marked down; the call falls back as for a
+     * connection failure but is not recorded as one.
+     */
+    private static class RedisDownException extends JedisConnectionException {
+        private static final long serialVersionUID = 1L;
+
+        RedisDownException() {
+            super("Redis marked down");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * Completes a shared load whose owner was cancelled; waiters retry instead of failing.
+     */
+    private static class AbandonedLoadException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        AbandonedLoadException() {
+            super("Shared load abandoned by a cancelled caller", null, false, false);
+        }
+    }
 }
\ No newline at end of file
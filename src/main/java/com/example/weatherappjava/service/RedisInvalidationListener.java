@@ -0,0 +1,223 @@
+package com.example.weatherappjava.service;
+
+import com.example.weatherappjava.util.AppConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the in-process {@link LocalCache} coherent with Redis using server-assisted client-side
+ * caching (Redis 6+ CLIENT TRACKING in broadcast mode). One connection subscribes to the
+ * invalidation channel; a second connection enables tracking and redirects invalidation
+ * messages to the first. Every key written by any client then evicts the local copy.
+ * <p>
+ * Redis drops the tracking state without notice when the tracking connection is closed (idle
+ * timeout, network reset), so both connections are checked periodically: the tracking connection
+ * must still be the same client (CLIENT ID), and the subscriber must answer a PING before the next
+ * check. Otherwise the subscription is torn down and set up again.
+ * <p>
+ * While tracking is not established, {@link #isTracking()} returns false and callers should
+ * not trust local entries except as a fallback when Redis cannot be reached.
+ */
+public class RedisInvalidationListener implements Runnable {
+    private static final Logger LOGGER = Logger.getLogger(RedisInvalidationListener.class.getName());
+    private static final String INVALIDATE_CHANNEL = "__redis__:invalidate";
+    private static final long RECONNECT_DELAY_MS = 5000;
+    private static final long CHECK_SECONDS = Math.max(1, AppConfig.getLong("weather.cache.local.trackingCheckSeconds", 10));
+
+    private final HostAndPort address;
+    private final JedisClientConfig clientConfig;
+    private final LocalCache localCache;
+    private final Thread thread;
+    private final ScheduledExecutorService connectionChecker;
+
+    private volatile boolean running = true;
+    private volatile boolean tracking;
+    private volatile Jedis subscriber;
+    private volatile Invalidations subscription;
+
+    public RedisInvalidationListener(HostAndPort address, JedisClientConfig clientConfig, LocalCache localCache) {
+        this.address = address;
+        this.clientConfig = clientConfig;
+        this.localCache = localCache;
+        this.thread = new Thread(this, "redis-invalidation-listener");
+        this.thread.setDaemon(true);
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread checker = new Thread(task, "redis-tracking-check");
+            checker.setDaemon(true);
+            return checker;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.connectionChecker = executor;
+    }
+
+    /**
+     * Starts listening in a background daemon thread.
+     */
+    public void start() {
+        thread.start();
+        connectionChecker.scheduleWithFixedDelay(this::checkConnections, CHECK_SECONDS, CHECK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns true while invalidation messages are being received, i.e. local entries are coherent.
+     */
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try (Jedis sub = new Jedis(address, clientConfig); Jedis tracker = new Jedis(address, clientConfig)) {
+                subscriber = sub;
+                Invalidations invalidations = new Invalidations(tracker, sub.clientId());
+                subscription = invalidations;
+                if (running) {
+                    // Blocks until unsubscribed or disconnected
+                    sub.subscribe(invalidations, INVALIDATE_CHANNEL);
+                }
+            } catch (JedisException e) {
+                if (running) {
+                    LOGGER.log(Level.FINE, "Redis invalidation listener disconnected", e);
+                }
+            } finally {
+                if (tracking) {
+                    LOGGER.warning("Redis client-side cache tracking lost, local cache used only as fallback");
+                }
+                tracking = false;
+                subscriber = null;
+                subscription = null;
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs on the check thread while tracking: verifies both connections and tears the
+     * subscription down if either was lost, so the listener thread sets tracking up again.
+     */
+    private void checkConnections() {
+        Invalidations invalidations = subscription;
+        Jedis sub = subscriber;
+        if (!tracking || invalidations == null || sub == null) {
+            return;
+        }
+        String problem;
+        try {
+            problem = invalidations.check();
+        } catch (JedisException e) {
+            problem = e.getMessage();
+        }
+        if (problem != null && tracking) {
+            tracking = false;
+            LOGGER.warning("Redis client-side cache tracking lost (" + problem + "), reconnecting");
+            try {
+                // Ends the blocking subscribe; the listener thread reconnects
+                sub.getConnection().disconnect();
+            } catch (JedisException e) {
+                // Already closed
+            }
+        }
+    }
+
+    /**
+     * Stops the listener and closes its connections.
+     */
+    public void stop() {
+        running = false;
+        tracking = false;
+        connectionChecker.shutdownNow();
+        Invalidations invalidations = subscription;
+        Jedis sub = subscriber;
+        try {
+            if (invalidations != null && invalidations.isSubscribed()) {
+                invalidations.unsubscribe();
+            } else if (sub != null) {
+                // Not subscribed yet: unblock the pending reply
+                sub.getConnection().disconnect();
+            }
+        } catch (JedisException e) {
+            // Already closed
+        }
+        thread.interrupt();
+    }
+
+    /**
+     * Subscription to the invalidation channel. Once the subscription is confirmed, tracking is
+     * enabled on the second connection with its messages redirected to the subscriber.
+     * Jedis delivers each invalidated key as a separate message, and a null message after FLUSHALL.
+     */
+    private class Invalidations extends JedisPubSub {
+        private final Jedis tracker;
+        private final long subscriberId;
+        private final AtomicInteger unansweredPings = new AtomicInteger();
+        private volatile long trackerId;
+
+        Invalidations(Jedis tracker, long subscriberId) {
+            this.tracker = tracker;
+            this.subscriberId = subscriberId;
+        }
+
+        @Override
+        public void onSubscribe(String channel, int subscribedChannels) {
+            tracker.sendCommand(Protocol.Command.CLIENT, "TRACKING", "ON",
+                    "REDIRECT", String.valueOf(subscriberId), "BCAST");
+            trackerId = tracker.clientId();
+
+            // Anything cached before tracking started may have missed invalidations
+            localCache.invalidateAll();
+            tracking = true;
+            LOGGER.info("Redis client-side cache tracking enabled");
+        }
+
+        @Override
+        public void onMessage(String channel, String key) {
+            if (key != null) {
+                localCache.invalidate(key);
+            } else {
+                // The whole keyspace was flushed
+                localCache.invalidateAll();
+            }
+        }
+
+        @Override
+        public void onPong(String message) {
+            unansweredPings.set(0);
+        }
+
+        /**
+         * Checks both connections once; returns what was lost, or null if tracking still holds.
+         * A broken tracker connection would be reopened by Jedis without tracking, so its client
+         * id has to stay the same.
+         */
+        String check() {
+            if (tracker.clientId() != trackerId) {
+                return "tracking connection was reopened";
+            }
+            if (unansweredPings.getAndIncrement() > 0) {
+                return "no PONG from the subscriber";
+            }
+            ping();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.weatherappjava.service;
+
+import com.example.weatherappjava.model.DoubleColumn;
+import com.example.weatherappjava.model.TimeColumn;
+import com.example.weatherappjava.model.WeatherData;
+import com.example.weatherappjava.model.WeatherSeries;
+import com.example.weatherappjava.util.JsonRecord;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Writes several series of a {@link WeatherData} into one file, as CSV or as a compact binary
+ * columnar format. Output goes through a single fixed-size buffer into a {@link FileChannel},
+ * so memory use does not depend on the number of rows. The file is written under a temporary
+ * name and moved into place when complete; an interrupted export leaves no partial file.
+ * <p>
+ * Binary layout (little-endian):
+ * <pre>
+ * "WXC1"                 magic
+ * int32 rows, int32 series
+ * per series: uint16 length + UTF-8 key, uint16 length + UTF-8 unit
+ * int64[rows]            epoch seconds of each row (Long.MIN_VALUE = no date, e.g. current weather)
+ * per series: float64[rows] values (NaN = missing)
+ * </pre>
+ */
+public class WeatherExportService {
+    private static final Logger LOGGER = Logger.getLogger(WeatherExportService.class.getName());
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Progress is reported (and cancellation checked) once per this many rows
+    private static final int PROGRESS_STEP = 4096;
+    private static final byte[] BINARY_MAGIC = {'W', 'X', 'C', '1'};
+
+    /**
+     * Output formats.
+     */
+    public enum Format {
+        CSV, BINARY
+    }
+
+    /**
+     * Exports the given series to a file. Progress (0..1) is reported to the listener from the
+     * calling thread. Throws InterruptedIOException if the thread is interrupted.
+     */
+    public void export(WeatherData weatherData, List<WeatherSeries> series, Path file, Format format,
+                       DoubleConsumer progress) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".part");
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (format == Format.CSV) {
+                writeCsv(weatherData, series, channel, buffer, progress);
+            } else {
+                writeBinary(weatherData, series, channel, buffer, progress);
+            }
+            drain(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        progress.accept(1.0);
+        LOGGER.info("Exported " + weatherData.getChartDataSize() + " rows x " + series.size() + " series to " + file
+                + " (" + format + ") in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private void writeCsv(WeatherData weatherData, List<WeatherSeries> series, FileChannel channel,
+                          ByteBuffer buffer, DoubleConsumer progress) throws IOException {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        StringBuilder line = new StringBuilder(256);
+        DoubleColumn[] columns = columnsOf(weatherData, series);
+        TimeColumn times = weatherData.getTimeData();
+        int rows = times.size();
+
+        line.append("time");
+        for (WeatherSeries s : series) {
+            line.append(',').append(s.getKey());
+        }
+        line.append('\n');
+        writeText(line, encoder, channel, buffer);
+
+        for (int row = 0; row < rows; row++) {
+            line.setLength(0);
+            // ISO dates; rows without a date (current weather) keep their label
+            if (times.getEpochSecond(row) == TimeColumn.NO_TIME) {
+                line.append(times.getLabel(row));
+            } else {
+                line.append(times.getDate(row));
+            }
+            for (DoubleColumn column : columns) {
+                line.append(',');
+                double value = column.get(row);
+                if (!Double.isNaN(value)) {
+                    line.append(JsonRecord.formatNumber(value));
+                }
+            }
+            line.append('\n');
+            writeText(line, encoder, channel, buffer);
+            reportProgress(row, rows, progress);
+        }
+    }
+
+    private void writeBinary(WeatherData weatherData, List<WeatherSeries> series, FileChannel channel,
+                             ByteBuffer buffer, DoubleConsumer progress) throws IOException {
+        DoubleColumn[] columns = columnsOf(weatherData, series);
+        TimeColumn times = weatherData.getTimeData();
+        int rows = times.size();
+
+        buffer.put(BINARY_MAGIC).putInt(rows).putInt(series.size());
+        for (WeatherSeries s : series) {
+            putString(s.getKey(), channel, buffer);
+            putString(s.getUnit(), channel, buffer);
+        }
+
+        // Column blocks: time first, then each series; progress counts rows of all blocks
+        long total = (long) rows * (columns.length + 1);
+        long done = 0;
+        for (int row = 0; row < rows; row++) {
+            ensure(Long.BYTES, channel, buffer);
+            buffer.putLong(times.getEpochSecond(row));
+            reportProgress(done++, total, progress);
+        }
+        for (DoubleColumn column : columns) {
+            for (int row = 0; row < rows; row++) {
+                ensure(Double.BYTES, channel, buffer);
+                buffer.putDouble(column.get(row));
+                reportProgress(done++, total, progress);
+            }
+        }
+    }
+
+    private static DoubleColumn[] columnsOf(WeatherData weatherData, List<WeatherSeries> series) {
+        DoubleColumn[] columns = new DoubleColumn[series.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = series.get(i).column(weatherData);
+        }
+        return columns;
+    }
+
+    private static void reportProgress(long done, long total, DoubleConsumer progress) throws InterruptedIOException {
+        if (done % PROGRESS_STEP == 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Export cancelled");
+            }
+            progress.accept(done / (double) Math.max(total, 1));
+        }
+    }
+
+    private static void putString(String value, FileChannel channel, ByteBuffer buffer) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(Short.BYTES + bytes.length, channel, buffer);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    /**
+     * Encodes text into the buffer, writing the buffer out whenever it fills up.
+     */
+    private static void writeText(CharSequence text, CharsetEncoder encoder, FileChannel channel,
+                                  ByteBuffer buffer) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                drain(channel, buffer);
+            } else if (result.isUnderflow()) {
+                encoder.reset();
+                return;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private static void ensure(int bytes, FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -2,88 +2,206 @@ package com.example.weatherappjava.service;
 
 import com.example.weatherappjava.model.LocationData;
 import com.example.weatherappjava.model.WeatherData;
-import com.example.weatherappjava.util.DateFormatter;
-import com.example.weatherappjava.util.HttpUtil;
-import com.example.weatherappjava.util.JsonParser;
-
-import javafx.scene.control.Label;
-import javafx.scene.layout.GridPane;
+import com.example.weatherappjava.util.AppConfig;
+import com.example.weatherappjava.util.GeoHash;
+import com.example.weatherappjava.util.HttpBody;
+import com.example.weatherappjava.util.HttpTransport;
+import com.example.weatherappjava.util.JsonRecord;
+import com.example.weatherappjava.util.OpenMeteoDecoder;
 
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class WeatherService {
     private static final Logger LOGGER = Logger.getLogger(WeatherService.class.getName());
-    private String rawWeatherResponse;
+    // Maximum number of locations in one multi-location request
+    private static final int BATCH_SIZE = AppConfig.getInt("weather.batch.maxLocations", 100);
+    // Endpoint of the forecast API (configurable to point at a local stand-in server)
+    private static final String FORECAST_URL = AppConfig.getString("weather.api.forecastUrl", "https://api.open-meteo.com/v1/forecast");
     private final RedisCacheService cacheService = RedisCacheService.getInstance();
-
-    public String getRawWeatherResponse() {
-        return rawWeatherResponse;
-    }
+    private final HttpTransport httpTransport = HttpTransport.getInstance();
 
     public WeatherData getCurrentWeather(LocationData location, int forecastDays) throws IOException {
         if (forecastDays < 1 || forecastDays > 16) {
             throw new IllegalArgumentException("Forecast days must be between 1 and 16.");
         }
 
-        String cacheKey = cacheService.generateForecastCacheKey(location.getLatitude(), location.getLongitude(), forecastDays);
-        boolean usedCache = false;
+        // Nearby points share one cache cell; the API is queried at the cell centre so the entry fits all of them
+        String cell = cacheService.forecastCell(location.getLatitude(), location.getLongitude());
+        double[] center = GeoHash.decodeCenter(cell);
+        String cacheKey = cacheService.generateForecastCacheKey(cell, forecastDays);
 
-        // Najpierw sprawdź cache
-        if (cacheService.hasCache(cacheKey)) {
-            LOGGER.info("Znaleziono dane prognozy w cache dla: " + location.getName());
-            rawWeatherResponse = cacheService.getFromCache(cacheKey);
-            usedCache = true;
-        } else {
-            // Jeśli brak danych w cache, pobierz z API
-            try {
+        // Jedno sprawdzenie cache; przy braku danych równoległe wyszukiwania dzielą jedno zapytanie do API
+        CacheResult result;
+        try {
+            // Past its TTL an entry is still returned at once (stale) and refreshed in the background
+            result = cacheService.getOrLoadStale(cacheKey, cacheService.getForecastTtl(), cacheService.getForecastStaleSeconds(), () -> {
                 LOGGER.info("Próba pobierania danych prognozy z API dla: " + location.getName());
-                String weatherApiUrl = "https://api.open-meteo.com/v1/forecast?latitude=" + location.getLatitude() +
-                        "&longitude=" + location.getLongitude() +
-                        "&current=temperature_2m,relative_humidity_2m,wind_speed_10m,surface_pressure,precipitation,soil_temperature_0cm" +
-                        "&daily=temperature_2m_max,temperature_2m_min,precipitation_sum,weather_code," +
-                        "windspeed_10m_mean,relative_humidity_2m_mean,surface_pressure_mean" +
-                        "&timezone=auto&forecast_days=" + forecastDays;
-
-                rawWeatherResponse = HttpUtil.makeHttpRequest(weatherApiUrl);
-                cacheService.saveToCache(cacheKey, rawWeatherResponse, true);
-            } catch (UnknownHostException e) {
-                LOGGER.warning("Brak połączenia z internetem, sprawdzanie cache...");
-                usedCache = true;
-            } catch (IOException e) {
-                LOGGER.warning("Błąd pobierania z API: " + e.getMessage() + ", sprawdzanie cache...");
-                usedCache = true;
-            }
+                String weatherApiUrl = buildForecastUrl(String.valueOf(center[0]), String.valueOf(center[1]), forecastDays);
+
+                // Decode while decompressing the received bytes and cache the compact form, as the batch path does
+                HttpBody body = httpTransport.get(weatherApiUrl);
+                return OpenMeteoDecoder.decode(body.openStream(), "current", "daily").toJson();
+            });
+        } catch (UnknownHostException e) {
+            LOGGER.warning("Brak połączenia z internetem i brak danych w cache");
+            throw new IOException("Brak połączenia z internetem i brak danych w cache dla lokalizacji: " + location.getName(), e);
+        } catch (IOException e) {
+            LOGGER.warning("Błąd pobierania z API: " + e.getMessage());
+            throw new IOException("Brak połączenia z internetem i brak danych w cache dla lokalizacji: " + location.getName(), e);
+        }
+
+        boolean usedCache = result.isFromCache();
+        if (usedCache) {
+            LOGGER.info("Znaleziono dane prognozy w cache dla: " + location.getName());
+        }
+
+        // Jednoprzebiegowe dekodowanie odpowiedzi (current + daily)
+        JsonRecord weatherResponse = OpenMeteoDecoder.decode(result.getValue(), "current", "daily");
+
+        return buildWeatherData(weatherResponse, usedCache, result.isStale());
+    }
+
+    /**
+     * Fetches forecasts for many locations at once. Cached cells are read in one pipelined round
+     * trip; the remaining cells are requested with comma-separated coordinate lists (up to
+     * weather.batch.maxLocations per request) and the multi-location response is split back per cell.
+     * Returns one WeatherData per location, in the order of the input.
+     */
+    public List<WeatherData> getCurrentWeather(List<LocationData> locations, int forecastDays) throws IOException {
+        if (forecastDays < 1 || forecastDays > 16) {
+            throw new IllegalArgumentException("Forecast days must be between 1 and 16.");
         }
 
-        // Jeśli użyto cache lub wystąpił błąd, spróbuj pobrać z cache
-        if (usedCache && rawWeatherResponse == null) {
-            if (cacheService.hasCache(cacheKey)) {
-                LOGGER.info("Znaleziono dane prognozy w cache dla: " + location.getName());
-                rawWeatherResponse = cacheService.getFromCache(cacheKey);
+        // Locations in the same cell share one cache entry and one upstream slot
+        Map<String, String> keysByCell = new LinkedHashMap<>();
+        for (LocationData location : locations) {
+            String cell = cacheService.forecastCell(location.getLatitude(), location.getLongitude());
+            keysByCell.putIfAbsent(cell, cacheService.generateForecastCacheKey(cell, forecastDays));
+        }
+        // Entries past their TTL are fetched again with the batch instead of being served stale
+        Map<String, String> cached = cacheService.getMany(new ArrayList<>(keysByCell.values()),
+                cacheService.getForecastStaleSeconds() * 1000L);
+
+        Map<String, JsonRecord> responses = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, String> entry : keysByCell.entrySet()) {
+            String json = cached.get(entry.getValue());
+            if (json != null) {
+                responses.put(entry.getKey(), OpenMeteoDecoder.decode(json, "current", "daily"));
             } else {
-                throw new IOException("Brak połączenia z internetem i brak danych w cache dla lokalizacji: " + location.getName());
+                missing.add(entry.getKey());
+            }
+        }
+        LOGGER.info("Prognoza dla " + keysByCell.size() + " komórek: " + (keysByCell.size() - missing.size())
+                + " w cache, " + missing.size() + " do pobrania");
+
+        for (int from = 0; from < missing.size(); from += BATCH_SIZE) {
+            List<String> batch = missing.subList(from, Math.min(from + BATCH_SIZE, missing.size()));
+            List<JsonRecord> records = fetchAndCache(batch, forecastDays);
+            for (int i = 0; i < batch.size(); i++) {
+                responses.put(batch.get(i), records.get(i));
+            }
+        }
+
+        List<WeatherData> result = new ArrayList<>(locations.size());
+        Set<String> fetched = new HashSet<>(missing);
+        for (LocationData location : locations) {
+            String cell = cacheService.forecastCell(location.getLatitude(), location.getLongitude());
+            result.add(buildWeatherData(responses.get(cell), !fetched.contains(cell), false));
+        }
+        return result;
+    }
+
+    /**
+     * Re-fetches the forecasts of the given cells, cached or not, and replaces their cache entries
+     * with a full TTL. Used by {@link ForecastRefresher} to keep watched locations warm; sends one
+     * request per weather.batch.maxLocations cells.
+     */
+    public void refreshForecasts(List<String> cells, int forecastDays) throws IOException {
+        for (int from = 0; from < cells.size(); from += BATCH_SIZE) {
+            fetchAndCache(cells.subList(from, Math.min(from + BATCH_SIZE, cells.size())), forecastDays);
+        }
+    }
+
+    /**
+     * Fetches the forecasts of up to weather.batch.maxLocations cells in one multi-location request,
+     * queried at the cell centres, caches them and returns the decoded responses in cell order.
+     */
+    private List<JsonRecord> fetchAndCache(List<String> cells, int forecastDays) throws IOException {
+        StringBuilder latitudes = new StringBuilder();
+        StringBuilder longitudes = new StringBuilder();
+        for (String cell : cells) {
+            double[] center = GeoHash.decodeCenter(cell);
+            if (latitudes.length() > 0) {
+                latitudes.append(',');
+                longitudes.append(',');
             }
+            latitudes.append(center[0]);
+            longitudes.append(center[1]);
+        }
+
+        HttpBody body = httpTransport.get(buildForecastUrl(latitudes.toString(), longitudes.toString(), forecastDays));
+        List<JsonRecord> records = OpenMeteoDecoder.decodeAll(body.openStream(), "current", "daily");
+        if (records.size() != cells.size()) {
+            throw new IOException("Oczekiwano " + cells.size() + " lokalizacji w odpowiedzi, otrzymano " + records.size());
+        }
+
+        Map<String, String> toCache = new HashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            toCache.put(cacheService.generateForecastCacheKey(cells.get(i), forecastDays), records.get(i).toJson());
         }
+        cacheService.putMany(toCache, cacheService.getForecastStorageTtl());
+        return records;
+    }
 
+    /**
+     * Builds the forecast API URL; latitudes and longitudes may be comma-separated lists.
+     */
+    private String buildForecastUrl(String latitudes, String longitudes, int forecastDays) {
+        return FORECAST_URL + "?latitude=" + latitudes +
+                "&longitude=" + longitudes +
+                "&current=temperature_2m,relative_humidity_2m,wind_speed_10m,surface_pressure,precipitation,soil_temperature_0cm" +
+                "&daily=temperature_2m_max,temperature_2m_min,precipitation_sum,weather_code," +
+                "windspeed_10m_mean,relative_humidity_2m_mean,surface_pressure_mean" +
+                "&timezone=auto&forecast_days=" + forecastDays;
+    }
+
+    /**
+     * Creates WeatherData from a decoded forecast response (current + daily sections). Stale data
+     * (past its TTL, being revalidated) is marked in the time label.
+     */
+    private WeatherData buildWeatherData(JsonRecord response, boolean usedCache, boolean stale) {
         // Tworzenie i wypełnianie obiektu WeatherData
         WeatherData weatherData = new WeatherData();
 
-        // Extract current weather data from JSON
-        String currentJson = JsonParser.extractStringFromJson(rawWeatherResponse, "current");
-
-        weatherData.setTemperature(JsonParser.extractDoubleFromJson(currentJson, "temperature_2m"));
-        weatherData.setWindSpeed(JsonParser.extractDoubleFromJson(currentJson, "wind_speed_10m"));
-        weatherData.setHumidity(JsonParser.extractDoubleFromJson(currentJson, "relative_humidity_2m"));
-        weatherData.setPressure(JsonParser.extractDoubleFromJson(currentJson, "surface_pressure"));
-        weatherData.setSoilTemperature(JsonParser.extractDoubleFromJson(currentJson, "soil_temperature_0cm"));
-        weatherData.setPrecipitation(JsonParser.extractDoubleFromJson(currentJson, "precipitation"));
-        weatherData.setTime(JsonParser.extractStringFromJson(currentJson, "time") + (usedCache ? " (z cache)" : ""));
+        // Extract current weather data from the decoded response
+        JsonRecord current = response.getRecord("current");
+        if (current == null) {
+            current = new JsonRecord();
+        }
 
-        // Dodanie danych dla bieżącej pogody do list do wykresów
-        weatherData.addChartDataPoint(
+        weatherData.setTemperature(current.getDouble("temperature_2m"));
+        weatherData.setWindSpeed(current.getDouble("wind_speed_10m"));
+        weatherData.setHumidity(current.getDouble("relative_humidity_2m"));
+        weatherData.setPressure(current.getDouble("surface_pressure"));
+        weatherData.setSoilTemperature(current.getDouble("soil_temperature_0cm"));
+        weatherData.setPrecipitation(current.getDouble("precipitation"));
+        weatherData.setTime(current.getString("time") + (stale ? " (z cache, stale)" : usedCache ? " (z cache)" : ""));
+        weatherData.setFromCache(usedCache || stale);
+        weatherData.setStale(stale);
+
+        // Dodanie danych dla bieżącej pogody do kolumn wykresów (brak danych = NaN)
+        weatherData.addLabeledChartDataPoint(
                 weatherData.getWindSpeed(),
                 weatherData.getSoilTemperature(),
                 weatherData.getTemperature(),
@@ -93,143 +211,42 @@ public class WeatherService {
         );
 
         // Extract forecast data - forecasts will be saved to chart data lists
-        processForecastData(weatherData);
+        processForecastData(weatherData, response);
 
         return weatherData;
     }
 
-    private void processForecastData(WeatherData weatherData) {
-        String dailyJson = JsonParser.extractStringFromJson(rawWeatherResponse, "daily");
-        if (dailyJson != null && !dailyJson.isEmpty()) {
-            String datesJson = JsonParser.extractStringFromJson(dailyJson, "time");
-            String maxTempJson = JsonParser.extractStringFromJson(dailyJson, "temperature_2m_max");
-            String minTempJson = JsonParser.extractStringFromJson(dailyJson, "temperature_2m_min");
-            String precipSumJson = JsonParser.extractStringFromJson(dailyJson, "precipitation_sum");
-
-            // Extract additional parameters
-            String windSpeedJson = JsonParser.extractStringFromJson(dailyJson, "windspeed_10m_mean");
-            String humidityJson = JsonParser.extractStringFromJson(dailyJson, "relative_humidity_2m_mean");
-            String pressureJson = JsonParser.extractStringFromJson(dailyJson, "surface_pressure_mean");
-
-            // Parse arrays
-            String[] dates = JsonParser.parseJsonArray(datesJson);
-            String[] maxTemps = JsonParser.parseJsonArray(maxTempJson);
-            String[] minTemps = JsonParser.parseJsonArray(minTempJson);
-            String[] precipSums = JsonParser.parseJsonArray(precipSumJson);
-
-            // Parse additional parameter arrays
-            String[] windSpeeds = JsonParser.parseJsonArray(windSpeedJson);
-            String[] humidities = JsonParser.parseJsonArray(humidityJson);
-            String[] pressures = JsonParser.parseJsonArray(pressureJson);
-
-            // Zapisz dane prognozy do list dla wykresów
+    /**
+     * Adds the daily forecast section of a decoded response to the chart and table columns.
+     */
+    public void processForecastData(WeatherData weatherData, JsonRecord response) {
+        JsonRecord daily = response.getRecord("daily");
+        if (daily != null) {
+            String[] dates = daily.getStrings("time");
+            double[] maxTemps = daily.getDoubles("temperature_2m_max");
+            double[] minTemps = daily.getDoubles("temperature_2m_min");
+            double[] precipSums = daily.getDoubles("precipitation_sum");
+
+            // Additional parameters
+            double[] windSpeeds = daily.getDoubles("windspeed_10m_mean");
+            double[] humidities = daily.getDoubles("relative_humidity_2m_mean");
+            double[] pressures = daily.getDoubles("surface_pressure_mean");
+
+            // Zapisz dane prognozy do kolumn wykresów i tabeli
+            weatherData.ensureChartCapacity(dates.length + 1);
             for (int i = 0; i < dates.length; i++) {
-                // Dla prognozy możemy użyć średniej temp max i min
-                double avgTemp = 0;
-                double rainValue = 0;
-                double windSpeed = 0;
-                double humidity = 0;
-                double pressure = 0;
-                double soilTemp = 0; // W trybie prognozy nie mamy temperatury gleby, ale utrzymujemy zmienną dla spójności
-
-                try {
-                    avgTemp = (Double.parseDouble(maxTemps[i]) + Double.parseDouble(minTemps[i])) / 2;
-                } catch (NumberFormatException e) {
-                    avgTemp = 0;
-                }
-
-                try {
-                    rainValue = Double.parseDouble(precipSums[i]);
-                } catch (NumberFormatException e) {
-                    rainValue = 0.0;
-                }
-
-                // Parse additional parameters with error handling
-                try {
-                    windSpeed = Double.parseDouble(windSpeeds[i]);
-                } catch (NumberFormatException | NullPointerException | ArrayIndexOutOfBoundsException e) {
-                    windSpeed = 0.0;
-                }
-
-                try {
-                    humidity = Double.parseDouble(humidities[i]);
-                } catch (NumberFormatException | NullPointerException | ArrayIndexOutOfBoundsException e) {
-                    humidity = 0.0;
-                }
-
-                try {
-                    pressure = Double.parseDouble(pressures[i]);
-                } catch (NumberFormatException | NullPointerException | ArrayIndexOutOfBoundsException e) {
-                    pressure = 0.0;
-                }
-
-                // Dodaj dane do list wykresów
-                weatherData.addChartDataPoint(
-                        windSpeed,
-                        soilTemp, // Przekazujemy 0 jako temperatura gleby w prognozie
-                        avgTemp,
-                        rainValue,
-                        pressure,
-                        DateFormatter.formatDate(dates[i])
+                // Brakujące wartości pozostają jako NaN; w prognozie nie mamy temperatury gleby
+                weatherData.addDailyDataPoint(
+                        JsonRecord.valueAt(windSpeeds, i),
+                        Double.NaN,
+                        JsonRecord.valueAt(minTemps, i),
+                        JsonRecord.valueAt(maxTemps, i),
+                        JsonRecord.valueAt(precipSums, i),
+                        JsonRecord.valueAt(pressures, i),
+                        JsonRecord.valueAt(humidities, i),
+                        dates[i]
                 );
             }
         }
     }
-
-    public void displayForecastInGrid(GridPane forecastGrid, WeatherData weatherData, int forecastDays) {
-        String dailyJson = JsonParser.extractStringFromJson(rawWeatherResponse, "daily");
-        if (dailyJson != null && !dailyJson.isEmpty()) {
-            String datesJson = JsonParser.extractStringFromJson(dailyJson, "time");
-            String maxTempJson = JsonParser.extractStringFromJson(dailyJson, "temperature_2m_max");
-            String minTempJson = JsonParser.extractStringFromJson(dailyJson, "temperature_2m_min");
-            String precipSumJson = JsonParser.extractStringFromJson(dailyJson, "precipitation_sum");
-
-            // Extract additional parameters
-            String windSpeedJson = JsonParser.extractStringFromJson(dailyJson, "windspeed_10m_mean");
-            String humidityJson = JsonParser.extractStringFromJson(dailyJson, "relative_humidity_2m_mean");
-
-            // Parse arrays
-            String[] dates = JsonParser.parseJsonArray(datesJson);
-            String[] maxTemps = JsonParser.parseJsonArray(maxTempJson);
-            String[] minTemps = JsonParser.parseJsonArray(minTempJson);
-            String[] precipSums = JsonParser.parseJsonArray(precipSumJson);
-
-            // Parse additional parameter arrays
-            String[] windSpeeds = JsonParser.parseJsonArray(windSpeedJson);
-            String[] humidities = JsonParser.parseJsonArray(humidityJson);
-
-            // Clear grid and add forecast data
-            forecastGrid.getChildren().clear();
-
-            // Add headers
-            forecastGrid.add(new Label("Data"), 0, 0);
-            forecastGrid.add(new Label("Min. Temp."), 1, 0);
-            forecastGrid.add(new Label("Max. Temp."), 2, 0);
-            forecastGrid.add(new Label("Opady"), 3, 0);
-            forecastGrid.add(new Label("Wiatr"), 4, 0);
-            forecastGrid.add(new Label("Wilgotność"), 5, 0);
-
-            // Display forecast data
-            int days = Math.min(dates.length, forecastDays); // Show up to forecastDays
-            for (int i = 0; i < days; i++) {
-                forecastGrid.add(new Label(DateFormatter.formatDate(dates[i])), 0, i + 1);
-                forecastGrid.add(new Label(minTemps[i] + " °C"), 1, i + 1);
-                forecastGrid.add(new Label(maxTemps[i] + " °C"), 2, i + 1);
-                forecastGrid.add(new Label(precipSums[i] + " mm"), 3, i + 1);
-
-                // Add additional data columns with error handling
-                try {
-                    forecastGrid.add(new Label(windSpeeds[i] + " km/h"), 4, i + 1);
-                } catch (NullPointerException | ArrayIndexOutOfBoundsException e) {
-                    forecastGrid.add(new Label("N/A"), 4, i + 1);
-                }
-
-                try {
-                    forecastGrid.add(new Label(humidities[i] + " %"), 5, i + 1);
-                } catch (NullPointerException | ArrayIndexOutOfBoundsException e) {
-                    forecastGrid.add(new Label("N/A"), 5, i + 1);
-                }
-            }
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package com.example.weatherappjava.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Application configuration. Values are read from JVM system properties first, then from
+ * an optional properties file (path given by -Dweather.config, default: weather-app.properties
+ * in the working directory), then fall back to the supplied defaults.
+ */
+public class AppConfig {
+    private static final Logger LOGGER = Logger.getLogger(AppConfig.class.getName());
+    private static final Properties FILE_PROPERTIES = loadFileProperties();
+
+    private AppConfig() {
+    }
+
+    /**
+     * Returns a string setting or the default if it is not configured.
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = FILE_PROPERTIES.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Returns an integer setting or the default if it is not configured or invalid.
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid integer for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns a long setting or the default if it is not configured or invalid.
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid number for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns a boolean setting or the default if it is not configured.
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+
+    private static Properties loadFileProperties() {
+        Properties properties = new Properties();
+        Path path = Paths.get(System.getProperty("weather.config", "weather-app.properties"));
+        if (Files.isRegularFile(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+                LOGGER.info("Loaded configuration from " + path.toAbsolutePath());
+            } catch (IOException e) {
+                LOGGER.warning("Failed to read configuration " + path + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.weatherappjava.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a daily section (a "time" array of consecutive dates plus numeric arrays) as the fields
+ * of a Redis hash, so single variables can be read without the others:
+ * <pre>
+ * meta        "&lt;first date&gt;,&lt;number of days&gt;" (UTF-8)
+ * &lt;variable&gt;  one byte encoding, then the values little-endian
+ * </pre>
+ * Encodings 0..3 store each value as a 16-bit integer scaled by 10^encoding (missing values as
+ * Short.MIN_VALUE), chosen when every value survives the round trip exactly; Open-Meteo values
+ * have at most one or two decimals, so most series take 2 bytes per day. Other series are stored
+ * as 64-bit doubles (encoding {@link #RAW}, NaN for missing values).
+ */
+public class DailySeriesCodec {
+    public static final String META_FIELD = "meta";
+    private static final String TIME = "time";
+    private static final byte RAW = 127;
+    private static final int MAX_SCALE = 3;
+    private static final double[] POWERS = {1, 10, 100, 1000};
+
+    private DailySeriesCodec() {
+    }
+
+    /**
+     * Encodes a daily section as hash fields, or returns null if its dates are missing or not
+     * consecutive days.
+     */
+    public static Map<String, byte[]> encode(JsonRecord daily) {
+        String[] times = daily.getStrings(TIME);
+        if (times.length == 0 || !isConsecutive(times)) {
+            return null;
+        }
+        Map<String, byte[]> fields = new LinkedHashMap<>();
+        fields.put(META_FIELD, (times[0] + "," + times.length).getBytes(StandardCharsets.UTF_8));
+        for (String variable : daily.keys()) {
+            double[] values = daily.getDoubles(variable);
+            if (!variable.equals(TIME) && values != null) {
+                fields.put(variable, encodeSeries(values, times.length));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Decodes the given variables from hash fields (as read for {@link #fieldsFor}). Returns null
+     * if the metadata or any of the variables is missing or unreadable.
+     */
+    public static JsonRecord decode(Map<String, byte[]> fields, List<String> variables) {
+        byte[] meta = fields.get(META_FIELD);
+        if (meta == null) {
+            return null;
+        }
+        String[] parts = new String(meta, StandardCharsets.UTF_8).split(",");
+        LocalDate first;
+        int days;
+        try {
+            first = LocalDate.parse(parts[0]);
+            days = Integer.parseInt(parts[1]);
+        } catch (DateTimeParseException | ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            return null;
+        }
+
+        JsonRecord daily = new JsonRecord();
+        String[] times = new String[days];
+        for (int d = 0; d < days; d++) {
+            times[d] = first.plusDays(d).toString();
+        }
+        daily.putArray(TIME, times);
+        for (String variable : variables) {
+            byte[] data = fields.get(variable);
+            double[] values = data != null ? decodeSeries(data, days) : null;
+            if (values == null) {
+                return null;
+            }
+            daily.putArray(variable, values);
+        }
+        return daily;
+    }
+
+    /**
+     * Encodes one series of the given length, choosing the smallest exact scale.
+     */
+    static byte[] encodeSeries(double[] values, int length) {
+        for (int scale = 0; scale <= MAX_SCALE; scale++) {
+            if (fitsScale(values, length, scale)) {
+                ByteBuffer buffer = ByteBuffer.allocate(1 + length * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.put((byte) scale);
+                for (int i = 0; i < length; i++) {
+                    double value = JsonRecord.valueAt(values, i);
+                    buffer.putShort(Double.isNaN(value) ? Short.MIN_VALUE : (short) Math.round(value * POWERS[scale]));
+                }
+                return buffer.array();
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(RAW);
+        for (int i = 0; i < length; i++) {
+            buffer.putDouble(JsonRecord.valueAt(values, i));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes one series of the given length, or returns null if the data does not match it.
+     */
+    static double[] decodeSeries(byte[] data, int length) {
+        if (data.length == 0) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        byte encoding = buffer.get();
+        double[] values = new double[length];
+        if (encoding == RAW && data.length == 1 + length * Double.BYTES) {
+            buffer.asDoubleBuffer().get(values);
+            return values;
+        }
+        if (encoding < 0 || encoding > MAX_SCALE || data.length != 1 + length * Short.BYTES) {
+            return null;
+        }
+        double power = POWERS[encoding];
+        for (int i = 0; i < length; i++) {
+            short scaled = buffer.getShort();
+            values[i] = scaled == Short.MIN_VALUE ? Double.NaN : scaled / power;
+        }
+        return values;
+    }
+
+    /**
+     * Returns true if every value, scaled by 10^scale, is a 16-bit integer that divides back to
+     * exactly the same double.
+     */
+    private static boolean fitsScale(double[] values, int length, int scale) {
+        double power = POWERS[scale];
+        for (int i = 0; i < length; i++) {
+            double value = JsonRecord.valueAt(values, i);
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            long scaled = Math.round(value * power);
+            if (scaled <= Short.MIN_VALUE || scaled > Short.MAX_VALUE || scaled / power != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isConsecutive(String[] times) {
+        try {
+            LocalDate day = LocalDate.parse(times[0]);
+            for (int i = 1; i < times.length; i++) {
+                day = day.plusDays(1);
+                if (!day.toString().equals(times[i])) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (DateTimeParseException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the hash fields to read for the given variables: the metadata followed by them.
+     */
+    public static List<String> fieldsFor(List<String> variables) {
+        String[] fields = new String[variables.size() + 1];
+        fields[0] = META_FIELD;
+        for (int i = 0; i < variables.size(); i++) {
+            fields[i + 1] = variables.get(i);
+        }
+        return Arrays.asList(fields);
+    }
+}
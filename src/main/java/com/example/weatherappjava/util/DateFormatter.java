@@ -1,5 +1,7 @@
 package com.example.weatherappjava.util;
 
+import java.time.LocalDate;
+
 /**
  * Utility class for formatting dates from API responses.
  */
@@ -21,4 +23,15 @@ public class DateFormatter {
         }
         return apiDate;
     }
-}
\ No newline at end of file
+
+    /**
+     * Formats a date in the same readable format (DD.MM.YYYY).
+     */
+    public static String formatDate(LocalDate date) {
+        if (date == null) return "";
+
+        int day = date.getDayOfMonth();
+        int month = date.getMonthValue();
+        return (day < 10 ? "0" : "") + day + "." + (month < 10 ? "0" : "") + month + "." + date.getYear();
+    }
+}
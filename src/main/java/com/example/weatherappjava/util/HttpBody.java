@@ -0,0 +1,160 @@
+package com.example.weatherappjava.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Raw response body returned by {@link HttpTransport}. The bytes are kept as received
+ * (possibly gzip/deflate compressed) and decompressed while being streamed, so callers
+ * can decode them directly without going through an intermediate String.
+ */
+public class HttpBody {
+    private final String url;
+    private final int statusCode;
+    private final String contentEncoding;
+    private final byte[] bytes;
+    private final HttpTransport owner;
+
+    // Decompressed size, known once the body has been streamed to the end
+    private long decodedLength = -1;
+
+    public HttpBody(int statusCode, byte[] bytes) {
+        this(null, statusCode, "identity", bytes, null);
+    }
+
+    HttpBody(String url, int statusCode, String contentEncoding, byte[] bytes, HttpTransport owner) {
+        this.url = url;
+        this.statusCode = statusCode;
+        this.contentEncoding = contentEncoding == null || contentEncoding.isEmpty()
+                ? "identity" : contentEncoding.trim().toLowerCase();
+        this.bytes = bytes;
+        this.owner = owner;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns the transfer encoding of the body ("gzip", "deflate" or "identity").
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    /**
+     * Returns true if the body was transferred compressed.
+     */
+    public boolean isCompressed() {
+        return !"identity".equals(contentEncoding);
+    }
+
+    /**
+     * Returns the body bytes as received on the wire (not copied, possibly compressed).
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes received on the wire.
+     */
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * Returns the decompressed body size, or -1 until the body has been fully streamed.
+     */
+    public synchronized long getDecodedLength() {
+        return isCompressed() ? decodedLength : bytes.length;
+    }
+
+    /**
+     * Opens a stream over the decompressed body. Nothing is buffered beyond the decompressor's
+     * window, so streaming a compressed body never holds its decompressed form in memory.
+     */
+    public InputStream openStream() throws IOException {
+        if (!isCompressed()) {
+            return new ByteArrayInputStream(bytes);
+        }
+        return new CountingInputStream(decompress());
+    }
+
+    /**
+     * Decodes the body as UTF-8 text, decompressing it (again) if needed.
+     */
+    public String asString() {
+        if (!isCompressed()) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        try (InputStream in = openStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress " + contentEncoding + " response", e);
+        }
+    }
+
+    private InputStream decompress() throws IOException {
+        InputStream raw = new ByteArrayInputStream(bytes);
+        if (contentEncoding.equals("gzip") || contentEncoding.equals("x-gzip")) {
+            return new GZIPInputStream(raw, 8192);
+        }
+        if (contentEncoding.equals("deflate")) {
+            // "deflate" should be zlib-wrapped, but some servers send raw deflate data
+            boolean zlibWrapped = bytes.length >= 2 && (bytes[0] & 0x0F) == 8
+                    && (((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF)) % 31 == 0;
+            return new InflaterInputStream(raw, new Inflater(!zlibWrapped), 8192);
+        }
+        throw new IOException("Unsupported content encoding: " + contentEncoding);
+    }
+
+    private synchronized void onFullyRead(long length) {
+        if (decodedLength < 0) {
+            decodedLength = length;
+            if (owner != null) {
+                owner.recordTransfer(url, contentEncoding, bytes.length, length);
+            }
+        }
+    }
+
+    /**
+     * Stream that counts the bytes it reads and reports the total at end of stream.
+     */
+    private class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            } else {
+                onFullyRead(count);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            } else if (n < 0) {
+                onFullyRead(count);
+            }
+            return n;
+        }
+    }
+}
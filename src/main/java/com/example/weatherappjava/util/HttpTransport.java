@@ -0,0 +1,203 @@
+package com.example.weatherappjava.util;
+
+import com.example.weatherappjava.metrics.Gauge;
+import com.example.weatherappjava.metrics.LatencyTimer;
+import com.example.weatherappjava.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.UnresolvedAddressException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Shared HTTP transport for all Open-Meteo calls. A single {@link HttpClient} keeps
+ * connections alive between requests and negotiates HTTP/2 where the server supports it,
+ * so repeated searches do not pay a new TCP and TLS handshake.
+ */
+public class HttpTransport {
+    private static final Logger LOGGER = Logger.getLogger(HttpTransport.class.getName());
+    private static HttpTransport instance;
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final boolean compression;
+
+    // Transfer statistics across all requests
+    private final AtomicLong totalWireBytes = new AtomicLong();
+    private final AtomicLong totalDecodedBytes = new AtomicLong();
+    private final Gauge inFlight = MetricsRegistry.gauge("http.inflight");
+
+    /**
+     * Returns the shared transport instance configured from {@link AppConfig}.
+     */
+    public static synchronized HttpTransport getInstance() {
+        if (instance == null) {
+            instance = new HttpTransport(
+                    Duration.ofMillis(AppConfig.getLong("weather.http.connectTimeoutMs", 5000)),
+                    Duration.ofMillis(AppConfig.getLong("weather.http.requestTimeoutMs", 10000)),
+                    AppConfig.getBoolean("weather.http.http2", true),
+                    AppConfig.getBoolean("weather.http.compression", true));
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a transport with explicit timeouts. When compression is enabled, gzip/deflate
+     * transfer is negotiated and bodies are decompressed while they are streamed.
+     */
+    public HttpTransport(Duration connectTimeout, Duration requestTimeout, boolean http2, boolean compression) {
+        this.requestTimeout = requestTimeout;
+        this.compression = compression;
+        this.client = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        LOGGER.info("Initialized HTTP transport (" + client.version() + ", connect timeout "
+                + connectTimeout.toMillis() + " ms, request timeout " + requestTimeout.toMillis() + " ms"
+                + (compression ? ", gzip/deflate" : "") + ")");
+    }
+
+    /**
+     * Sends a GET request asynchronously. The future completes with the body on HTTP 200 and
+     * completes exceptionally with an IOException for any other status or transport failure.
+     */
+    public CompletableFuture<HttpBody> getAsync(String url) {
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(requestTimeout)
+                    .header("Accept", "application/json")
+                    .GET();
+            if (compression) {
+                builder.header("Accept-Encoding", "gzip, deflate");
+            }
+            request = builder.build();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new IOException("Invalid URL: " + url, e));
+        }
+
+        // Latency is measured per endpoint (last path segment: forecast, archive, search)
+        LatencyTimer timer = MetricsRegistry.timer("http." + endpointOf(request.uri()));
+        long start = System.nanoTime();
+        inFlight.increment();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    inFlight.decrement();
+                    if (error != null) {
+                        timer.recordError(start);
+                        throw new CompletionException(toIOException(error, request.uri()));
+                    }
+                    String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+                    HttpBody body = new HttpBody(url, response.statusCode(), encoding, response.body(), this);
+                    if (response.statusCode() != 200) {
+                        timer.recordError(start);
+                        // Handle HTTP errors (error bodies may be compressed too)
+                        throw new CompletionException(new IOException("Błąd HTTP: " + response.statusCode()
+                                + ", Odpowiedź: " + safeText(body)));
+                    }
+                    timer.recordSince(start);
+                    if (!body.isCompressed()) {
+                        recordTransfer(url, "identity", body.length(), body.length());
+                    }
+                    return body;
+                });
+    }
+
+    /**
+     * Sends a GET request and waits for the body.
+     */
+    public HttpBody get(String url) throws IOException {
+        CompletableFuture<HttpBody> future = getAsync(url);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request interrupted: " + url);
+        } catch (ExecutionException e) {
+            throw toIOException(e.getCause(), URI.create(url));
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("Request cancelled: " + url);
+        }
+    }
+
+    /**
+     * Returns the total number of body bytes received on the wire.
+     */
+    public long getTotalWireBytes() {
+        return totalWireBytes.get();
+    }
+
+    /**
+     * Returns the total number of body bytes after decompression.
+     */
+    public long getTotalDecodedBytes() {
+        return totalDecodedBytes.get();
+    }
+
+    /**
+     * Records the compressed and uncompressed size of one response body.
+     */
+    void recordTransfer(String url, String encoding, long wireBytes, long decodedBytes) {
+        totalWireBytes.addAndGet(wireBytes);
+        totalDecodedBytes.addAndGet(decodedBytes);
+        String host = url != null ? URI.create(url).getHost() : "?";
+        if (!"identity".equals(encoding)) {
+            LOGGER.info(String.format(Locale.ROOT, "Received %d bytes from %s (%s), %d bytes decoded (%.1fx)",
+                    wireBytes, host, encoding, decodedBytes, decodedBytes / (double) Math.max(wireBytes, 1)));
+        } else {
+            LOGGER.info("Received " + wireBytes + " bytes from " + host + " (" + encoding + ")");
+        }
+    }
+
+    private static String endpointOf(URI uri) {
+        String path = uri.getPath();
+        if (path == null || path.isEmpty() || path.equals("/")) {
+            return uri.getHost();
+        }
+        return path.substring(path.lastIndexOf('/', path.length() - 2) + 1).replace("/", "");
+    }
+
+    private static String safeText(HttpBody body) {
+        try {
+            return body.asString();
+        } catch (RuntimeException e) {
+            return "<" + body.length() + " bytes, " + body.getContentEncoding() + ">";
+        }
+    }
+
+    /**
+     * Unwraps async failures into an IOException, reporting unresolvable hosts as
+     * UnknownHostException so callers can tell "offline" apart from other errors.
+     */
+    private static IOException toIOException(Throwable error, URI uri) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof UnresolvedAddressException || t instanceof UnknownHostException) {
+                UnknownHostException unknownHost = new UnknownHostException(uri.getHost());
+                unknownHost.initCause(cause);
+                return unknownHost;
+            }
+        }
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        return new IOException("Request to " + uri.getHost() + " failed: " + cause, cause);
+    }
+}
@@ -1,43 +0,0 @@
-package com.example.weatherappjava.util;
-
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-
-public class HttpUtil {
-    public static String makeHttpRequest(String apiUrl) throws IOException {
-        URL url = new URL(apiUrl);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
-        connection.setConnectTimeout(5000);
-        connection.setReadTimeout(5000);
-
-        StringBuilder response = new StringBuilder();
-        int responseCode = connection.getResponseCode();
-
-        if (responseCode == HttpURLConnection.HTTP_OK) {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(connection.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-            }
-        } else {
-            // Handle HTTP errors
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(connection.getErrorStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-            }
-            throw new IOException("Błąd HTTP: " + responseCode + ", Odpowiedź: " + response);
-        }
-
-        connection.disconnect();
-        return response.toString();
-    }
-}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.weatherappjava.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Shared executor for blocking I/O (HTTP and Redis calls), kept off the common ForkJoinPool.
+ * Uses one virtual thread per task when the runtime supports them (Java 21+), otherwise a
+ * bounded pool of daemon threads sized by weather.io.threads.
+ */
+public class IoExecutor {
+    private static final Logger LOGGER = Logger.getLogger(IoExecutor.class.getName());
+    private static ExecutorService instance;
+
+    private IoExecutor() {
+    }
+
+    /**
+     * Returns the shared executor, creating it on first use.
+     */
+    public static synchronized ExecutorService getInstance() {
+        if (instance == null) {
+            instance = create();
+        }
+        return instance;
+    }
+
+    private static ExecutorService create() {
+        if (AppConfig.getBoolean("weather.io.virtualThreads", true)) {
+            try {
+                // Looked up reflectively so the code still compiles and runs on Java 17
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                ExecutorService executor = (ExecutorService) factory.invoke(null);
+                LOGGER.info("Blocking I/O runs on virtual threads");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                LOGGER.fine("Virtual threads not available: " + e);
+            }
+        }
+
+        int threads = Math.max(1, AppConfig.getInt("weather.io.threads", 16));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        LOGGER.info("Blocking I/O runs on a pool of " + threads + " threads");
+        return executor;
+    }
+
+    /**
+     * Creates named daemon threads so pending I/O never keeps the JVM alive after the window closes.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "weather-io-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
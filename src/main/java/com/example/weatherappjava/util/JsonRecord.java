@@ -0,0 +1,357 @@
+package com.example.weatherappjava.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decoded JSON object produced by {@link OpenMeteoDecoder}. Numeric arrays are kept as primitive
+ * double arrays with NaN marking missing values; all lookups are lenient and never throw.
+ */
+public class JsonRecord {
+    private final Map<String, Object> values = new HashMap<>();
+
+    void put(String key, Object value) {
+        values.put(key, value);
+    }
+
+    /**
+     * Sets a numeric array (NaN for missing values); used to build records from stored columns.
+     */
+    public JsonRecord putArray(String key, double[] array) {
+        values.put(key, array);
+        return this;
+    }
+
+    /**
+     * Sets a string array (null for missing values).
+     */
+    public JsonRecord putArray(String key, String[] array) {
+        values.put(key, array);
+        return this;
+    }
+
+    /**
+     * Returns true if the record contains the given key.
+     */
+    public boolean has(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * Returns the keys present in this record.
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    /**
+     * Returns a numeric value, or NaN if the key is missing or not numeric.
+     */
+    public double getDouble(String key) {
+        Object value = values.get(key);
+        if (value instanceof Double) {
+            return (Double) value;
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Returns a numeric value, or the fallback if the key is missing or not numeric.
+     */
+    public double getDouble(String key, double fallback) {
+        double value = getDouble(key);
+        return Double.isNaN(value) ? fallback : value;
+    }
+
+    /**
+     * Returns a scalar value as text, or an empty string if the key is missing.
+     */
+    public String getString(String key) {
+        Object value = values.get(key);
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof Double || value instanceof Boolean) {
+            return String.valueOf(value);
+        }
+        return "";
+    }
+
+    /**
+     * Returns a numeric array, or null if the key is missing. String arrays are parsed leniently.
+     */
+    public double[] getDoubles(String key) {
+        Object value = values.get(key);
+        if (value instanceof double[]) {
+            return (double[]) value;
+        }
+        if (value instanceof String[]) {
+            String[] strings = (String[]) value;
+            double[] result = new double[strings.length];
+            for (int i = 0; i < strings.length; i++) {
+                try {
+                    result[i] = strings[i] != null ? Double.parseDouble(strings[i]) : Double.NaN;
+                } catch (NumberFormatException e) {
+                    result[i] = Double.NaN;
+                }
+            }
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a string array, or an empty array if the key is missing. Missing elements are null.
+     */
+    public String[] getStrings(String key) {
+        Object value = values.get(key);
+        if (value instanceof String[]) {
+            return (String[]) value;
+        }
+        if (value instanceof double[]) {
+            double[] numbers = (double[]) value;
+            String[] result = new String[numbers.length];
+            for (int i = 0; i < numbers.length; i++) {
+                result[i] = Double.isNaN(numbers[i]) ? null : String.valueOf(numbers[i]);
+            }
+            return result;
+        }
+        return new String[0];
+    }
+
+    /**
+     * Returns a nested object, or null if the key is missing.
+     */
+    public JsonRecord getRecord(String key) {
+        Object value = values.get(key);
+        return value instanceof JsonRecord ? (JsonRecord) value : null;
+    }
+
+    /**
+     * Returns an array of nested objects, or an empty list if the key is missing.
+     */
+    @SuppressWarnings("unchecked")
+    public List<JsonRecord> getRecords(String key) {
+        Object value = values.get(key);
+        return value instanceof List ? (List<JsonRecord>) value : Collections.emptyList();
+    }
+
+    /**
+     * Returns a copy of this record with every array value cut to the index range [from, to).
+     * Scalar values and nested records are shared.
+     */
+    public JsonRecord slice(int from, int to) {
+        JsonRecord result = new JsonRecord();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof double[]) {
+                double[] array = (double[]) value;
+                value = Arrays.copyOfRange(array, Math.min(from, array.length), Math.min(to, array.length));
+            } else if (value instanceof String[]) {
+                String[] array = (String[]) value;
+                value = Arrays.copyOfRange(array, Math.min(from, array.length), Math.min(to, array.length));
+            }
+            result.put(entry.getKey(), value);
+        }
+        return result;
+    }
+
+    /**
+     * Joins records with the same array layout (e.g. consecutive "daily" sections) into one record
+     * whose arrays hold the parts in order. A part missing an array is padded with NaN or null so
+     * all arrays stay aligned; scalar values are taken from the first part that has them.
+     */
+    public static JsonRecord concat(List<JsonRecord> parts) {
+        Set<String> keys = new LinkedHashSet<>();
+        int total = 0;
+        int[] lengths = new int[parts.size()];
+        for (int p = 0; p < parts.size(); p++) {
+            JsonRecord part = parts.get(p);
+            keys.addAll(part.values.keySet());
+            lengths[p] = part.arrayLength();
+            total += lengths[p];
+        }
+
+        JsonRecord result = new JsonRecord();
+        for (String key : keys) {
+            Object first = null;
+            for (JsonRecord part : parts) {
+                if (part.values.containsKey(key)) {
+                    first = part.values.get(key);
+                    break;
+                }
+            }
+            if (first instanceof double[]) {
+                double[] joined = new double[total];
+                int offset = 0;
+                for (int p = 0; p < parts.size(); p++) {
+                    Object value = parts.get(p).values.get(key);
+                    if (value instanceof double[]) {
+                        double[] array = (double[]) value;
+                        System.arraycopy(array, 0, joined, offset, Math.min(array.length, lengths[p]));
+                        Arrays.fill(joined, offset + Math.min(array.length, lengths[p]), offset + lengths[p], Double.NaN);
+                    } else {
+                        Arrays.fill(joined, offset, offset + lengths[p], Double.NaN);
+                    }
+                    offset += lengths[p];
+                }
+                result.put(key, joined);
+            } else if (first instanceof String[]) {
+                String[] joined = new String[total];
+                int offset = 0;
+                for (int p = 0; p < parts.size(); p++) {
+                    Object value = parts.get(p).values.get(key);
+                    if (value instanceof String[]) {
+                        String[] array = (String[]) value;
+                        System.arraycopy(array, 0, joined, offset, Math.min(array.length, lengths[p]));
+                    }
+                    offset += lengths[p];
+                }
+                result.put(key, joined);
+            } else {
+                result.put(key, first);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the length of the longest array value in this record (0 if it has none).
+     */
+    public int arrayLength() {
+        int length = 0;
+        for (Object value : values.values()) {
+            if (value instanceof double[]) {
+                length = Math.max(length, ((double[]) value).length);
+            } else if (value instanceof String[]) {
+                length = Math.max(length, ((String[]) value).length);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes this record back as compact JSON that {@link OpenMeteoDecoder} reads into an equal record.
+     * NaN values are written as null.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        writeJson(json, this);
+        return json.toString();
+    }
+
+    private static void writeJson(StringBuilder json, Object value) {
+        if (value instanceof JsonRecord) {
+            json.append('{');
+            boolean first = true;
+            for (Map.Entry<String, Object> entry : ((JsonRecord) value).values.entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                writeString(json, entry.getKey());
+                json.append(':');
+                writeJson(json, entry.getValue());
+            }
+            json.append('}');
+        } else if (value instanceof double[]) {
+            double[] array = (double[]) value;
+            json.append('[');
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                writeNumber(json, array[i]);
+            }
+            json.append(']');
+        } else if (value instanceof String[]) {
+            String[] array = (String[]) value;
+            json.append('[');
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                writeJson(json, array[i]);
+            }
+            json.append(']');
+        } else if (value instanceof List) {
+            json.append('[');
+            boolean first = true;
+            for (Object element : (List<?>) value) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                writeJson(json, element);
+            }
+            json.append(']');
+        } else if (value instanceof Double) {
+            writeNumber(json, (Double) value);
+        } else if (value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof String) {
+            writeString(json, (String) value);
+        } else {
+            json.append("null");
+        }
+    }
+
+    private static void writeNumber(StringBuilder json, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            json.append("null");
+        } else {
+            json.append(formatNumber(value));
+        }
+    }
+
+    private static void writeString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Safely reads an element of a numeric array, returning NaN for a null array or an out-of-range index.
+     */
+    public static double valueAt(double[] values, int index) {
+        return values != null && index >= 0 && index < values.length ? values[index] : Double.NaN;
+    }
+
+    /**
+     * Formats a decoded number the way it is usually written in the JSON text (no trailing ".0").
+     */
+    public static String formatNumber(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
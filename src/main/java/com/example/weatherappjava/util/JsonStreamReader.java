@@ -0,0 +1,588 @@
+package com.example.weatherappjava.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal pull-style JSON tokenizer reading UTF-8 bytes straight from an input stream.
+ * Numbers are decoded directly to double without building intermediate strings.
+ */
+public class JsonStreamReader implements Closeable {
+
+    /**
+     * Kinds of tokens returned by {@link #peek()}.
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    // Nesting scopes
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    // Powers of ten that are exactly representable as doubles (fast path for number parsing)
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private int[] stack = new int[32];
+    private int stackSize = 1;
+
+    private Token peeked;
+    private boolean peekedBoolean;
+
+    // Scratch space for strings and slow-path numbers
+    private byte[] scratch = new byte[64];
+    private int scratchLength;
+
+    /**
+     * Creates a reader over the given UTF-8 encoded stream.
+     */
+    public JsonStreamReader(InputStream in) {
+        this(in, 8192);
+    }
+
+    /**
+     * Creates a reader over the given UTF-8 encoded stream with a custom buffer size.
+     */
+    public JsonStreamReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[Math.max(bufferSize, 16)];
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Returns the type of the next token without consuming it.
+     */
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+
+        int scope = stack[stackSize - 1];
+        int c;
+        switch (scope) {
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                } else if (c == -1) {
+                    throw syntaxError("Unexpected end of input");
+                }
+                pos--;
+                break;
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                } else if (c != ',') {
+                    throw syntaxError("Expected ',' or ']'");
+                }
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                stack[stackSize - 1] = DANGLING_NAME;
+                c = nextNonWhitespace();
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c == '}') {
+                        return peeked = Token.END_OBJECT;
+                    } else if (c != ',') {
+                        throw syntaxError("Expected ',' or '}'");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c == '"') {
+                    return peeked = Token.NAME;
+                } else if (c == '}' && scope == EMPTY_OBJECT) {
+                    return peeked = Token.END_OBJECT;
+                }
+                throw syntaxError("Expected property name");
+            case DANGLING_NAME:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("Expected ':'");
+                }
+                break;
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                break;
+            default: // NONEMPTY_DOCUMENT
+                c = nextNonWhitespace();
+                if (c == -1) {
+                    return peeked = Token.END_DOCUMENT;
+                }
+                throw syntaxError("Unexpected data after top-level value");
+        }
+
+        c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return peeked = Token.BEGIN_OBJECT;
+            case '[':
+                return peeked = Token.BEGIN_ARRAY;
+            case '"':
+                return peeked = Token.STRING;
+            case 't':
+                expectLiteral("rue");
+                peekedBoolean = true;
+                return peeked = Token.BOOLEAN;
+            case 'f':
+                expectLiteral("alse");
+                peekedBoolean = false;
+                return peeked = Token.BOOLEAN;
+            case 'n':
+                expectLiteral("ull");
+                return peeked = Token.NULL;
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pos--; // Leave the first character for number parsing
+                    return peeked = Token.NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    /**
+     * Consumes the start of an object.
+     */
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consumes the end of an object.
+     */
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        stackSize--;
+    }
+
+    /**
+     * Consumes the start of an array.
+     */
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consumes the end of an array.
+     */
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        stackSize--;
+    }
+
+    /**
+     * Returns true if the current array or object has another element.
+     */
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the next property name.
+     */
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return readString();
+    }
+
+    /**
+     * Consumes the next string value. Numbers and booleans are returned as their literal text, null as null.
+     */
+    public String nextString() throws IOException {
+        Token token = peek();
+        peeked = null;
+        switch (token) {
+            case STRING:
+                return readString();
+            case NUMBER:
+                readNumberLiteral();
+                return new String(scratch, 0, scratchLength, StandardCharsets.US_ASCII);
+            case BOOLEAN:
+                return String.valueOf(peekedBoolean);
+            case NULL:
+                return null;
+            default:
+                peeked = token;
+                throw syntaxError("Expected a string but was " + token);
+        }
+    }
+
+    /**
+     * Consumes the next numeric value. Null and non-numeric strings are returned as NaN,
+     * numeric strings are parsed leniently.
+     */
+    public double nextDouble() throws IOException {
+        Token token = peek();
+        peeked = null;
+        switch (token) {
+            case NUMBER:
+                return readNumber();
+            case NULL:
+                return Double.NaN;
+            case STRING:
+                String text = readString();
+                try {
+                    return Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            case BOOLEAN:
+                return Double.NaN;
+            default:
+                peeked = token;
+                throw syntaxError("Expected a number but was " + token);
+        }
+    }
+
+    /**
+     * Consumes the next boolean value.
+     */
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        return peekedBoolean;
+    }
+
+    /**
+     * Consumes the next null literal.
+     */
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+    }
+
+    /**
+     * Skips the next value, including nested objects and arrays, without allocating.
+     */
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            Token token = peek();
+            peeked = null;
+            switch (token) {
+                case BEGIN_OBJECT:
+                    push(EMPTY_OBJECT);
+                    depth++;
+                    break;
+                case BEGIN_ARRAY:
+                    push(EMPTY_ARRAY);
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    stackSize--;
+                    depth--;
+                    break;
+                case NAME:
+                case STRING:
+                    skipString();
+                    break;
+                case NUMBER:
+                    readNumberLiteral();
+                    break;
+                case END_DOCUMENT:
+                    peeked = token;
+                    throw syntaxError("Unexpected end of input");
+                default:
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Returns the number of bytes consumed from the underlying stream so far.
+     */
+    public long getBytesRead() {
+        return consumed + pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+
+    private void expectLiteral(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+    }
+
+    private void appendScratch(int b) {
+        if (scratchLength == scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratchLength * 2);
+        }
+        scratch[scratchLength++] = (byte) b;
+    }
+
+    /**
+     * Reads the remainder of a string whose opening quote was already consumed.
+     */
+    private String readString() throws IOException {
+        scratchLength = 0;
+        int pendingHighSurrogate = -1;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw syntaxError("Unterminated string");
+            }
+            if (c == '"') {
+                break;
+            }
+            if (c != '\\') {
+                appendScratch(c);
+                continue;
+            }
+            int escaped = read();
+            int ch;
+            switch (escaped) {
+                case '"': ch = '"'; break;
+                case '\\': ch = '\\'; break;
+                case '/': ch = '/'; break;
+                case 'b': ch = '\b'; break;
+                case 'f': ch = '\f'; break;
+                case 'n': ch = '\n'; break;
+                case 'r': ch = '\r'; break;
+                case 't': ch = '\t'; break;
+                case 'u': ch = readHexQuad(); break;
+                default: throw syntaxError("Invalid escape sequence");
+            }
+            if (Character.isHighSurrogate((char) ch)) {
+                pendingHighSurrogate = ch;
+                continue;
+            }
+            if (pendingHighSurrogate != -1 && Character.isLowSurrogate((char) ch)) {
+                ch = Character.toCodePoint((char) pendingHighSurrogate, (char) ch);
+            }
+            pendingHighSurrogate = -1;
+            appendCodePoint(ch);
+        }
+        return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw syntaxError("Unterminated string");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                read();
+            }
+        }
+    }
+
+    private int readHexQuad() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw syntaxError("Invalid unicode escape");
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private void appendCodePoint(int cp) {
+        if (cp < 0x80) {
+            appendScratch(cp);
+        } else if (cp < 0x800) {
+            appendScratch(0xC0 | (cp >> 6));
+            appendScratch(0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            appendScratch(0xE0 | (cp >> 12));
+            appendScratch(0x80 | ((cp >> 6) & 0x3F));
+            appendScratch(0x80 | (cp & 0x3F));
+        } else {
+            appendScratch(0xF0 | (cp >> 18));
+            appendScratch(0x80 | ((cp >> 12) & 0x3F));
+            appendScratch(0x80 | ((cp >> 6) & 0x3F));
+            appendScratch(0x80 | (cp & 0x3F));
+        }
+    }
+
+    /**
+     * Copies the literal characters of a number into the scratch buffer.
+     */
+    private void readNumberLiteral() throws IOException {
+        scratchLength = 0;
+        while (true) {
+            int c = read();
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                appendScratch(c);
+            } else {
+                if (c != -1) {
+                    pos--;
+                }
+                checkNumberLiteral();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks the scanned literal against the JSON number grammar: an optional minus, an integer
+     * part without leading zeros, then optional fraction and exponent parts with at least one digit.
+     */
+    private void checkNumberLiteral() throws IOException {
+        int i = 0;
+        if (i < scratchLength && scratch[i] == '-') {
+            i++;
+        }
+        int start = i;
+        i = skipDigits(i);
+        boolean valid = i > start && (scratch[start] != '0' || i == start + 1);
+        if (valid && i < scratchLength && scratch[i] == '.') {
+            int fraction = i + 1;
+            i = skipDigits(fraction);
+            valid = i > fraction;
+        }
+        if (valid && i < scratchLength && (scratch[i] == 'e' || scratch[i] == 'E')) {
+            i++;
+            if (i < scratchLength && (scratch[i] == '+' || scratch[i] == '-')) {
+                i++;
+            }
+            int exponent = i;
+            i = skipDigits(exponent);
+            valid = i > exponent;
+        }
+        if (!valid || i != scratchLength) {
+            throw syntaxError("Invalid number '" + new String(scratch, 0, scratchLength, StandardCharsets.US_ASCII) + "'");
+        }
+    }
+
+    private int skipDigits(int i) {
+        while (i < scratchLength && scratch[i] >= '0' && scratch[i] <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Parses a number directly from the byte stream. Values with at most 15 significant digits
+     * and a small exponent are computed exactly; everything else falls back to Double.parseDouble.
+     */
+    private double readNumber() throws IOException {
+        readNumberLiteral();
+        int i = 0;
+        boolean negative = false;
+        if (i < scratchLength && scratch[i] == '-') {
+            negative = true;
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for (; i < scratchLength; i++) {
+            byte b = scratch[i];
+            if (b >= '0' && b <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    if (inFraction) {
+                        fractionDigits++;
+                    }
+                } else {
+                    return parseScratchSlow();
+                }
+            } else if (b == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                // Exponent or unexpected character
+                return parseScratchSlow();
+            }
+        }
+
+        if (mantissa < MAX_EXACT_MANTISSA && fractionDigits < POW10.length) {
+            double value = fractionDigits == 0 ? mantissa : mantissa / POW10[fractionDigits];
+            return negative ? -value : value;
+        }
+        return parseScratchSlow();
+    }
+
+    private double parseScratchSlow() throws IOException {
+        String literal = new String(scratch, 0, scratchLength, StandardCharsets.US_ASCII);
+        try {
+            return Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Invalid number '" + literal + "'");
+        }
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Malformed JSON at byte " + getBytesRead() + ": " + message);
+    }
+}
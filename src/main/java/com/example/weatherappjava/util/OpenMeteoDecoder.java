@@ -0,0 +1,241 @@
+package com.example.weatherappjava.util;
+
+import com.example.weatherappjava.metrics.LatencyTimer;
+import com.example.weatherappjava.metrics.MetricsRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single-pass decoder for Open-Meteo API responses. The response is read once and every
+ * requested section ("current", "daily", "results", ...) is filled in the same pass, with
+ * numeric arrays decoded straight into double arrays. Unrequested sections are skipped
+ * without allocating.
+ */
+public class OpenMeteoDecoder {
+    private static final double[] EMPTY_DOUBLES = new double[0];
+
+    // Element types of a decoded array
+    private static final int ARRAY_UNKNOWN = 0;
+    private static final int ARRAY_NUMBERS = 1;
+    private static final int ARRAY_STRINGS = 2;
+    private static final int ARRAY_OBJECTS = 3;
+    private static final int ARRAY_OTHER = 4;
+
+    private OpenMeteoDecoder() {
+    }
+
+    /**
+     * Decodes a JSON string, keeping only the given top-level sections (all if none are given).
+     */
+    public static JsonRecord decode(String json, String... sections) throws IOException {
+        return decode(json.getBytes(StandardCharsets.UTF_8), sections);
+    }
+
+    /**
+     * Decodes UTF-8 JSON bytes, keeping only the given top-level sections (all if none are given).
+     */
+    public static JsonRecord decode(byte[] json, String... sections) throws IOException {
+        return decode(new ByteArrayInputStream(json), sections);
+    }
+
+    /**
+     * Decodes a UTF-8 JSON stream, keeping only the given top-level sections (all if none are given).
+     */
+    public static JsonRecord decode(InputStream in, String... sections) throws IOException {
+        List<JsonRecord> records = decodeAll(in, sections);
+        return records.isEmpty() ? new JsonRecord() : records.get(0);
+    }
+
+    /**
+     * Decodes a UTF-8 JSON stream whose top level is either a single object or an array of objects
+     * (as returned for multi-location requests).
+     */
+    public static List<JsonRecord> decodeAll(InputStream in, String... sections) throws IOException {
+        // Parse time per section set; for streamed bodies this includes decompression
+        LatencyTimer timer = MetricsRegistry.timer("parse." + (sections.length == 0 ? "all" : String.join("+", sections)));
+        long start = System.nanoTime();
+        try {
+            List<JsonRecord> records = readAll(in, sections);
+            timer.recordSince(start);
+            return records;
+        } catch (IOException | RuntimeException e) {
+            timer.recordError(start);
+            throw e;
+        }
+    }
+
+    private static List<JsonRecord> readAll(InputStream in, String... sections) throws IOException {
+        Set<String> wanted = sections.length == 0 ? null : new HashSet<>(Arrays.asList(sections));
+        JsonStreamReader reader = new JsonStreamReader(in);
+        List<JsonRecord> records = new ArrayList<>();
+
+        JsonStreamReader.Token token = reader.peek();
+        if (token == JsonStreamReader.Token.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() == JsonStreamReader.Token.BEGIN_OBJECT) {
+                    records.add(readObject(reader, wanted));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endArray();
+        } else if (token == JsonStreamReader.Token.BEGIN_OBJECT) {
+            records.add(readObject(reader, wanted));
+        } else {
+            throw new IOException("Unexpected JSON response: expected object or array but was " + token);
+        }
+
+        // Consume the rest of the stream so trailing garbage is detected and streaming sources reach EOF
+        if (reader.peek() != JsonStreamReader.Token.END_DOCUMENT) {
+            throw new IOException("Unexpected data after JSON response");
+        }
+        return records;
+    }
+
+    /**
+     * Reads an object. When a section filter is given, nested objects and arrays whose name
+     * is not in the filter are skipped; scalar fields are always kept.
+     */
+    private static JsonRecord readObject(JsonStreamReader reader, Set<String> wanted) throws IOException {
+        JsonRecord record = new JsonRecord();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (reader.peek()) {
+                case BEGIN_OBJECT:
+                    if (wanted == null || wanted.contains(name)) {
+                        record.put(name, readObject(reader, null));
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                case BEGIN_ARRAY:
+                    if (wanted == null || wanted.contains(name)) {
+                        Object array = readArray(reader);
+                        if (array != null) {
+                            record.put(name, array);
+                        }
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                case NUMBER:
+                    record.put(name, reader.nextDouble());
+                    break;
+                case STRING:
+                    record.put(name, reader.nextString());
+                    break;
+                case BOOLEAN:
+                    record.put(name, reader.nextBoolean());
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return record;
+    }
+
+    /**
+     * Reads an array into double[] (numbers), String[] (strings) or List of records (objects).
+     * The element type is decided by the first non-null element; leading nulls become NaN/null.
+     * Arrays of other shapes are skipped and null is returned.
+     */
+    private static Object readArray(JsonStreamReader reader) throws IOException {
+        int mode = ARRAY_UNKNOWN;
+        int leadingNulls = 0;
+
+        double[] doubleValues = EMPTY_DOUBLES;
+        String[] stringValues = null;
+        List<JsonRecord> recordValues = null;
+        int size = 0;
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            JsonStreamReader.Token token = reader.peek();
+            if (mode == ARRAY_UNKNOWN) {
+                if (token == JsonStreamReader.Token.NULL) {
+                    reader.nextNull();
+                    leadingNulls++;
+                    continue;
+                }
+                if (token == JsonStreamReader.Token.NUMBER) {
+                    mode = ARRAY_NUMBERS;
+                    doubleValues = new double[Math.max(16, leadingNulls * 2)];
+                    Arrays.fill(doubleValues, 0, leadingNulls, Double.NaN);
+                } else if (token == JsonStreamReader.Token.STRING) {
+                    mode = ARRAY_STRINGS;
+                    stringValues = new String[Math.max(16, leadingNulls * 2)];
+                } else if (token == JsonStreamReader.Token.BEGIN_OBJECT) {
+                    mode = ARRAY_OBJECTS;
+                    recordValues = new ArrayList<>();
+                } else {
+                    mode = ARRAY_OTHER;
+                }
+                size = leadingNulls;
+            }
+
+            switch (mode) {
+                case ARRAY_NUMBERS:
+                    if (size == doubleValues.length) {
+                        doubleValues = Arrays.copyOf(doubleValues, size * 2);
+                    }
+                    if (token == JsonStreamReader.Token.BEGIN_OBJECT || token == JsonStreamReader.Token.BEGIN_ARRAY) {
+                        reader.skipValue();
+                        doubleValues[size++] = Double.NaN;
+                    } else {
+                        doubleValues[size++] = reader.nextDouble();
+                    }
+                    break;
+                case ARRAY_STRINGS:
+                    if (size == stringValues.length) {
+                        stringValues = Arrays.copyOf(stringValues, size * 2);
+                    }
+                    if (token == JsonStreamReader.Token.BEGIN_OBJECT || token == JsonStreamReader.Token.BEGIN_ARRAY) {
+                        reader.skipValue();
+                        stringValues[size++] = null;
+                    } else {
+                        stringValues[size++] = reader.nextString();
+                    }
+                    break;
+                case ARRAY_OBJECTS:
+                    if (token == JsonStreamReader.Token.BEGIN_OBJECT) {
+                        recordValues.add(readObject(reader, null));
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endArray();
+
+        switch (mode) {
+            case ARRAY_UNKNOWN:
+                // Only nulls (or empty): treat as a numeric series with every value missing
+                double[] missing = new double[leadingNulls];
+                Arrays.fill(missing, Double.NaN);
+                return missing;
+            case ARRAY_NUMBERS:
+                return size == doubleValues.length ? doubleValues : Arrays.copyOf(doubleValues, size);
+            case ARRAY_STRINGS:
+                return size == stringValues.length ? stringValues : Arrays.copyOf(stringValues, size);
+            case ARRAY_OBJECTS:
+                return recordValues;
+            default:
+                return null;
+        }
+    }
+}
@@ -1,21 +1,15 @@
 module com.example.weatherappjava {
     requires javafx.controls;
     requires javafx.fxml;
-    requires javafx.web;
 
-    requires org.controlsfx.controls;
-    requires com.dlsc.formsfx;
-    requires net.synedra.validatorfx;
-    requires org.kordamp.ikonli.javafx;
-    requires org.kordamp.bootstrapfx.core;
-    requires eu.hansolo.tilesfx;
-    requires com.almasb.fxgl.all;
     requires java.logging;
+    requires java.management;
+    requires java.net.http;
     requires redis.clients.jedis;
-    requires org.json;
 
     opens com.example.weatherappjava to javafx.fxml;
     exports com.example.weatherappjava;
     exports com.example.weatherappjava.controller;
+    exports com.example.weatherappjava.metrics;
     opens com.example.weatherappjava.controller to javafx.fxml;
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.example.weatherappjava.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownsamplingTest {
+
+    private static DoubleColumn column(double... values) {
+        DoubleColumn column = new DoubleColumn();
+        for (double value : values) {
+            column.add(value);
+        }
+        return column;
+    }
+
+    private static DoubleColumn sine(int length) {
+        DoubleColumn column = new DoubleColumn();
+        for (int i = 0; i < length; i++) {
+            column.add(Math.sin(i / 50.0) * 10);
+        }
+        return column;
+    }
+
+    @Test
+    void emptyAndSingleValue() {
+        assertArrayEquals(new int[0], Downsampling.lttb(column(), 0, 0, 100));
+        assertArrayEquals(new int[]{0}, Downsampling.lttb(column(4.2), 0, 1, 100));
+        assertArrayEquals(new int[]{0}, Downsampling.lttb(column(4.2), 0, 1, 3));
+    }
+
+    @Test
+    void shortRangesKeepEveryPresentValue() {
+        DoubleColumn values = column(1, Double.NaN, 3, 4, Double.NaN);
+        assertArrayEquals(new int[]{0, 2, 3}, Downsampling.lttb(values, 0, 5, 10));
+        // Below three points LTTB is not applied
+        assertArrayEquals(new int[]{0, 2, 3}, Downsampling.lttb(values, 0, 5, 2));
+    }
+
+    @Test
+    void onlyMissingValues() {
+        assertArrayEquals(new int[0], Downsampling.lttb(column(Double.NaN, Double.NaN, Double.NaN), 0, 3, 3));
+    }
+
+    @Test
+    void clampsTheRange() {
+        DoubleColumn values = column(1, 2, 3);
+        assertArrayEquals(new int[]{0, 1, 2}, Downsampling.lttb(values, -1, 4, 10));
+        assertArrayEquals(new int[0], Downsampling.lttb(values, 2, 1, 10));
+    }
+
+    @Test
+    void reducesToThresholdKeepingEndpoints() {
+        DoubleColumn values = sine(10_000);
+        int[] indices = Downsampling.lttb(values, 0, values.size(), 500);
+        assertEquals(500, indices.length);
+        assertEquals(0, indices[0]);
+        assertEquals(9_999, indices[indices.length - 1]);
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(indices[i] > indices[i - 1], "indices not ascending at " + i);
+        }
+    }
+
+    @Test
+    void endpointsAreThePresentValuesAtTheEdges() {
+        DoubleColumn values = new DoubleColumn();
+        values.add(Double.NaN);
+        for (int i = 0; i < 1000; i++) {
+            values.add(i % 7 == 0 ? Double.NaN : i);
+        }
+        values.add(Double.NaN);
+        int[] indices = Downsampling.lttb(values, 0, values.size(), 50);
+        assertEquals(50, indices.length);
+        assertEquals(2, indices[0]);
+        assertEquals(1000, indices[indices.length - 1]);
+        for (int index : indices) {
+            assertTrue(!values.isMissing(index), "missing value selected at " + index);
+        }
+    }
+
+    @Test
+    void keepsPeaks() {
+        DoubleColumn values = new DoubleColumn();
+        for (int i = 0; i < 5000; i++) {
+            values.add(i == 1234 ? 100 : i == 3210 ? -100 : 0);
+        }
+        int[] indices = Downsampling.lttb(values, 0, values.size(), 100);
+        boolean peak = false;
+        boolean dip = false;
+        for (int index : indices) {
+            peak |= index == 1234;
+            dip |= index == 3210;
+        }
+        assertTrue(peak && dip);
+    }
+
+    @Test
+    void subRangeStaysInsideIt() {
+        DoubleColumn values = sine(10_000);
+        int[] indices = Downsampling.lttb(values, 2000, 4000, 100);
+        assertEquals(100, indices.length);
+        assertEquals(2000, indices[0]);
+        assertEquals(3999, indices[indices.length - 1]);
+    }
+}
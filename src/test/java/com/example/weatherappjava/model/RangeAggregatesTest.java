@@ -0,0 +1,107 @@
+package com.example.weatherappjava.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RangeAggregatesTest {
+
+    private static DoubleColumn column(double... values) {
+        DoubleColumn column = new DoubleColumn();
+        for (double value : values) {
+            column.add(value);
+        }
+        return column;
+    }
+
+    private static void assertEmpty(RangeStats stats) {
+        assertEquals(0, stats.getCount());
+        assertEquals(0.0, stats.getSum());
+        assertTrue(Double.isNaN(stats.getMin()) && Double.isNaN(stats.getMax()) && Double.isNaN(stats.getMean()));
+    }
+
+    @Test
+    void emptySeries() {
+        RangeAggregates aggregates = new RangeAggregates(column());
+        assertEquals(0, aggregates.size());
+        assertEmpty(aggregates.query(0, 10));
+    }
+
+    @Test
+    void singleValue() {
+        RangeAggregates aggregates = new RangeAggregates(column(-4.5));
+        RangeStats stats = aggregates.query(0, 1);
+        assertEquals(1, stats.getCount());
+        assertEquals(-4.5, stats.getMin());
+        assertEquals(-4.5, stats.getMax());
+        assertEquals(-4.5, stats.getSum());
+        assertEquals(-4.5, stats.getMean());
+        assertEmpty(aggregates.query(1, 1));
+    }
+
+    @Test
+    void missingValuesAreNotCounted() {
+        RangeAggregates aggregates = new RangeAggregates(column(Double.NaN, 2, Double.NaN, 6, Double.NaN));
+        RangeStats stats = aggregates.query(0, 5);
+        assertEquals(2, stats.getCount());
+        assertEquals(2.0, stats.getMin());
+        assertEquals(6.0, stats.getMax());
+        assertEquals(4.0, stats.getMean());
+        assertEmpty(aggregates.query(4, 5));
+        assertEmpty(new RangeAggregates(column(Double.NaN, Double.NaN)).query(0, 2));
+    }
+
+    @Test
+    void clampsAndEmptyRanges() {
+        RangeAggregates aggregates = new RangeAggregates(column(1, 2, 3));
+        assertEquals(6.0, aggregates.query(-5, 50).getSum());
+        assertEmpty(aggregates.query(2, 1));
+        assertEmpty(aggregates.query(3, 3));
+    }
+
+    @Test
+    void matchesAScanForEveryRange() {
+        // Odd length so the tree is not a perfect binary tree
+        Random random = new Random(7);
+        DoubleColumn values = new DoubleColumn();
+        for (int i = 0; i < 157; i++) {
+            values.add(random.nextInt(10) == 0 ? Double.NaN : Math.round(random.nextGaussian() * 100) / 10.0);
+        }
+        RangeAggregates aggregates = new RangeAggregates(values);
+        for (int from = 0; from <= values.size(); from++) {
+            for (int to = from; to <= values.size(); to++) {
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                double sum = 0;
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    if (!values.isMissing(i)) {
+                        min = Math.min(min, values.get(i));
+                        max = Math.max(max, values.get(i));
+                        sum += values.get(i);
+                        count++;
+                    }
+                }
+                RangeStats stats = aggregates.query(from, to);
+                assertEquals(count, stats.getCount());
+                assertEquals(sum, stats.getSum(), 1e-9);
+                if (count > 0) {
+                    assertEquals(min, stats.getMin());
+                    assertEquals(max, stats.getMax());
+                }
+            }
+        }
+    }
+
+    @Test
+    void snapshotIgnoresLaterChanges() {
+        DoubleColumn values = column(1, 2);
+        RangeAggregates aggregates = new RangeAggregates(values);
+        values.add(100);
+        assertEquals(2, aggregates.size());
+        assertEquals(3.0, aggregates.query(0, 3).getSum());
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.weatherappjava.service;
+
+import com.example.weatherappjava.util.JsonRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArchiveStoreTest {
+    private static final String CELL = "u3qcn";
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Builds a month chunk whose values encode the day, with every fifth day missing.
+     */
+    private static JsonRecord chunk(YearMonth month, double offset) {
+        int days = month.lengthOfMonth();
+        String[] times = new String[days];
+        double[] temperature = new double[days];
+        double[] precipitation = new double[days];
+        for (int d = 0; d < days; d++) {
+            times[d] = month.atDay(d + 1).toString();
+            temperature[d] = d % 5 == 4 ? Double.NaN : offset + d * 0.1;
+            precipitation[d] = d * 0.25;
+        }
+        return new JsonRecord()
+                .putArray("time", times)
+                .putArray("temperature_2m_mean", temperature)
+                .putArray("precipitation_sum", precipitation);
+    }
+
+    @Test
+    void roundTripsAMonth() {
+        ArchiveStore store = new ArchiveStore(directory);
+        YearMonth month = YearMonth.of(2020, 2); // leap February
+        JsonRecord written = chunk(month, -3);
+        store.writeMonth(CELL, month, written);
+
+        JsonRecord read = store.readMonth(CELL, month);
+        assertNotNull(read);
+        assertEquals(29, read.getStrings("time").length);
+        assertArrayEquals(written.getStrings("time"), read.getStrings("time"));
+        assertArrayEquals(written.getDoubles("temperature_2m_mean"), read.getDoubles("temperature_2m_mean"));
+        assertArrayEquals(written.getDoubles("precipitation_sum"), read.getDoubles("precipitation_sum"));
+        assertTrue(Double.isNaN(read.getDoubles("temperature_2m_mean")[4]));
+    }
+
+    @Test
+    void missingMonthsAreNull() {
+        ArchiveStore store = new ArchiveStore(directory);
+        assertNull(store.readMonth(CELL, YearMonth.of(2020, 1)));
+        store.writeMonth(CELL, YearMonth.of(2020, 1), chunk(YearMonth.of(2020, 1), 0));
+        assertNull(store.readMonth(CELL, YearMonth.of(2020, 2)));
+        assertNull(store.readMonth("other", YearMonth.of(2020, 1)));
+        assertNull(store.readMonth(CELL, YearMonth.of(1939, 12)));
+    }
+
+    @Test
+    void ignoresIncompleteOrMisalignedChunks() {
+        ArchiveStore store = new ArchiveStore(directory);
+        YearMonth month = YearMonth.of(2021, 3);
+        store.writeMonth(CELL, month, chunk(month, 0).slice(0, 30));
+        store.writeMonth(CELL, month, chunk(YearMonth.of(2021, 5), 0));
+        store.writeMonth(CELL, month, new JsonRecord());
+        store.writeMonth(CELL, YearMonth.of(1939, 12), chunk(YearMonth.of(1939, 12), 0));
+        assertNull(store.readMonth(CELL, month));
+        assertFalse(Files.exists(directory.resolve(CELL).resolve("months")));
+    }
+
+    @Test
+    void monthsPersistAcrossInstances() {
+        YearMonth early = YearMonth.of(1940, 1);
+        YearMonth late = YearMonth.of(2023, 11);
+        ArchiveStore writer = new ArchiveStore(directory);
+        writer.writeMonth(CELL, early, chunk(early, 1));
+        writer.writeMonth(CELL, late, chunk(late, 2));
+
+        ArchiveStore reader = new ArchiveStore(directory);
+        assertArrayEquals(chunk(early, 1).getDoubles("temperature_2m_mean"),
+                reader.readMonth(CELL, early).getDoubles("temperature_2m_mean"));
+        assertArrayEquals(chunk(late, 2).getDoubles("precipitation_sum"),
+                reader.readMonth(CELL, late).getDoubles("precipitation_sum"));
+        assertNull(reader.readMonth(CELL, YearMonth.of(2000, 6)));
+    }
+
+    @Test
+    void laterMonthsAreVisibleAfterTheFileWasMapped() {
+        ArchiveStore store = new ArchiveStore(directory);
+        YearMonth first = YearMonth.of(2000, 1);
+        YearMonth second = YearMonth.of(2010, 1);
+        store.writeMonth(CELL, first, chunk(first, 0));
+        assertNotNull(store.readMonth(CELL, first));
+        // The variable files grow; the store has to remap them
+        store.writeMonth(CELL, second, chunk(second, 7));
+        assertArrayEquals(chunk(second, 7).getDoubles("temperature_2m_mean"),
+                store.readMonth(CELL, second).getDoubles("temperature_2m_mean"));
+    }
+
+    @Test
+    void variablesMissingFromAMonthReadAsNaN() {
+        ArchiveStore store = new ArchiveStore(directory);
+        YearMonth january = YearMonth.of(2022, 1);
+        YearMonth march = YearMonth.of(2022, 3);
+        YearMonth may = YearMonth.of(2022, 5);
+        // Stored before wind_speed is known, then with it, then without it again
+        store.writeMonth(CELL, january, chunk(january, 0));
+        store.writeMonth(CELL, march, chunk(march, 0).putArray("wind_speed", filled(31, 4.5)));
+        store.writeMonth(CELL, may, chunk(may, 0));
+
+        ArchiveStore reader = new ArchiveStore(directory);
+        for (YearMonth month : new YearMonth[]{january, may}) {
+            for (double value : reader.readMonth(CELL, month).getDoubles("wind_speed")) {
+                assertTrue(Double.isNaN(value), month + ": " + value);
+            }
+        }
+        assertArrayEquals(filled(31, 4.5), reader.readMonth(CELL, march).getDoubles("wind_speed"));
+        assertArrayEquals(chunk(may, 0).getDoubles("precipitation_sum"),
+                reader.readMonth(CELL, may).getDoubles("precipitation_sum"));
+    }
+
+    @Test
+    void earlierMonthStoredWithoutAVariableReadsNaN() {
+        ArchiveStore store = new ArchiveStore(directory);
+        YearMonth early = YearMonth.of(2001, 1);
+        YearMonth late = YearMonth.of(2001, 12);
+        store.writeMonth(CELL, late, chunk(late, 3));
+        // An earlier month is stored afterwards, without precipitation
+        JsonRecord temperatureOnly = chunk(early, 1);
+        JsonRecord written = new JsonRecord()
+                .putArray("time", temperatureOnly.getStrings("time"))
+                .putArray("temperature_2m_mean", temperatureOnly.getDoubles("temperature_2m_mean"));
+        store.writeMonth(CELL, early, written);
+        for (double value : store.readMonth(CELL, early).getDoubles("precipitation_sum")) {
+            assertTrue(Double.isNaN(value));
+        }
+    }
+
+    private static double[] filled(int length, double value) {
+        double[] values = new double[length];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    @Test
+    void storedMonthsAreNotOverwritten() {
+        ArchiveStore store = new ArchiveStore(directory);
+        YearMonth month = YearMonth.of(2019, 7);
+        store.writeMonth(CELL, month, chunk(month, 1));
+        store.writeMonth(CELL, month, chunk(month, 100));
+        assertEquals(1.0, store.readMonth(CELL, month).getDoubles("temperature_2m_mean")[0]);
+    }
+
+    @Test
+    void skipsUnsafeVariableNames() {
+        ArchiveStore store = new ArchiveStore(directory);
+        YearMonth month = YearMonth.of(2019, 4);
+        store.writeMonth(CELL, month, chunk(month, 0).putArray("../escape", new double[30]));
+        JsonRecord read = store.readMonth(CELL, month);
+        assertFalse(read.has("../escape"));
+        assertTrue(read.has("precipitation_sum"));
+    }
+}
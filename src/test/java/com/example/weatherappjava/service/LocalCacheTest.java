@@ -0,0 +1,138 @@
+package com.example.weatherappjava.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalCacheTest {
+
+    @Test
+    void storesAndCountsHitsAndMisses() {
+        LocalCache cache = new LocalCache(64 * 1024);
+        assertNull(cache.get("a"));
+        cache.put("a", "1", 0);
+        cache.put("empty", "", 0);
+        assertEquals("1", cache.get("a"));
+        assertEquals("", cache.get("empty"));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void replacingUpdatesValueAndWeight() {
+        LocalCache cache = new LocalCache(64 * 1024);
+        cache.put("a", "short", 0);
+        long before = cache.weightedSize();
+        cache.put("a", "a much longer value", 0);
+        assertEquals("a much longer value", cache.get("a"));
+        assertEquals(1, cache.size());
+        assertEquals(before + 2L * ("a much longer value".length() - "short".length()), cache.weightedSize());
+    }
+
+    @Test
+    void expiredEntriesAreMissing() throws InterruptedException {
+        LocalCache cache = new LocalCache(64 * 1024);
+        cache.put("short", "v", 1);
+        cache.put("forever", "v", 0);
+        cache.put("long", "v", 60_000);
+        Thread.sleep(20);
+        assertFalse(cache.contains("short"));
+        assertNull(cache.get("short"));
+        assertEquals("v", cache.get("forever"));
+        assertEquals(-1, cache.remainingMillis("forever"));
+        assertEquals(-2, cache.remainingMillis("short"));
+        assertEquals(-2, cache.remainingMillis("missing"));
+        long remaining = cache.remainingMillis("long");
+        assertTrue(remaining > 0 && remaining <= 60_000, String.valueOf(remaining));
+    }
+
+    @Test
+    void oversizedValueIsNotStoredAndDropsOldValue() {
+        LocalCache cache = new LocalCache(4096);
+        cache.put("a", "small", 0);
+        cache.put("a", "x".repeat(4096), 0);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.weightedSize());
+    }
+
+    @Test
+    void staysWithinWeightBound() {
+        LocalCache cache = new LocalCache(16 * 1024);
+        for (int i = 0; i < 2000; i++) {
+            cache.put("key" + i, "value" + i, 0);
+            assertTrue(cache.weightedSize() <= 16 * 1024, "weight " + cache.weightedSize());
+        }
+        assertTrue(cache.size() > 0);
+    }
+
+    @Test
+    void frequentKeysSurviveScans() {
+        LocalCache cache = new LocalCache(16 * 1024);
+        for (int i = 0; i < 20; i++) {
+            cache.put("hot" + i, "v", 0);
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 20; i++) {
+                cache.get("hot" + i);
+            }
+        }
+        // A scan of one-off keys several times the capacity
+        for (int i = 0; i < 5000; i++) {
+            cache.put("scan" + i, "v", 0);
+        }
+        int hotLeft = 0;
+        for (int i = 0; i < 20; i++) {
+            if (cache.contains("hot" + i)) {
+                hotLeft++;
+            }
+        }
+        assertTrue(hotLeft >= 18, "hot entries left: " + hotLeft);
+    }
+
+    @Test
+    void invalidationRemovesEntriesAndChangesStamp() {
+        LocalCache cache = new LocalCache(64 * 1024);
+        cache.put("a", "1", 0);
+        cache.put("b", "2", 0);
+        long stamp = cache.invalidationStamp();
+        cache.invalidate("a");
+        cache.invalidate("missing");
+        assertNull(cache.get("a"));
+        assertEquals("2", cache.get("b"));
+        assertNotEquals(stamp, cache.invalidationStamp());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weightedSize());
+    }
+
+    @Test
+    void putIfNotInvalidatedRejectsValuesReadBeforeAnInvalidation() {
+        LocalCache cache = new LocalCache(64 * 1024);
+        long stamp = cache.invalidationStamp();
+        cache.invalidate("other");
+        assertFalse(cache.putIfNotInvalidated("a", "old", 0, stamp));
+        assertNull(cache.get("a"));
+        assertTrue(cache.putIfNotInvalidated("a", "new", 0, cache.invalidationStamp()));
+        assertEquals("new", cache.get("a"));
+    }
+
+    @Test
+    void sketchCountsUpToFifteen() {
+        LocalCache.FrequencySketch sketch = new LocalCache.FrequencySketch(1024);
+        assertEquals(0, sketch.frequency("a".hashCode()));
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("a".hashCode());
+        }
+        assertEquals(5, sketch.frequency("a".hashCode()));
+        for (int i = 0; i < 50; i++) {
+            sketch.increment("a".hashCode());
+        }
+        assertEquals(15, sketch.frequency("a".hashCode()));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.weatherappjava.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DailySeriesCodecTest {
+    private static final List<String> VARIABLES = List.of("temperature_2m_mean", "precipitation_sum");
+
+    private static JsonRecord daily(String[] times, double[] temperature, double[] precipitation) {
+        return new JsonRecord()
+                .putArray("time", times)
+                .putArray("temperature_2m_mean", temperature)
+                .putArray("precipitation_sum", precipitation);
+    }
+
+    @Test
+    void roundTripsASection() {
+        JsonRecord written = daily(new String[]{"2024-02-28", "2024-02-29", "2024-03-01"},
+                new double[]{-3.2, Double.NaN, 12.5}, new double[]{0, 1.25, 30});
+        Map<String, byte[]> fields = DailySeriesCodec.encode(written);
+        assertNotNull(fields);
+        assertEquals("2024-02-28,3", new String(fields.get(DailySeriesCodec.META_FIELD), StandardCharsets.UTF_8));
+        assertFalse(fields.containsKey("time"));
+
+        JsonRecord read = DailySeriesCodec.decode(fields, VARIABLES);
+        assertNotNull(read);
+        assertArrayEquals(written.getStrings("time"), read.getStrings("time"));
+        assertArrayEquals(written.getDoubles("temperature_2m_mean"), read.getDoubles("temperature_2m_mean"));
+        assertArrayEquals(written.getDoubles("precipitation_sum"), read.getDoubles("precipitation_sum"));
+    }
+
+    @Test
+    void decodesOnlyTheRequestedVariables() {
+        Map<String, byte[]> fields = DailySeriesCodec.encode(daily(new String[]{"2024-01-01"},
+                new double[]{1.5}, new double[]{2}));
+        JsonRecord read = DailySeriesCodec.decode(fields, List.of("precipitation_sum"));
+        assertArrayEquals(new double[]{2}, read.getDoubles("precipitation_sum"));
+        assertNull(read.getDoubles("temperature_2m_mean"));
+    }
+
+    @Test
+    void choosesTheSmallestExactScale() {
+        assertEquals(0, DailySeriesCodec.encodeSeries(new double[]{1, -20, 300}, 3)[0]);
+        assertEquals(1, DailySeriesCodec.encodeSeries(new double[]{1, -2.5, 30.1}, 3)[0]);
+        assertEquals(2, DailySeriesCodec.encodeSeries(new double[]{0.25, 3}, 2)[0]);
+        assertEquals(3, DailySeriesCodec.encodeSeries(new double[]{0.125}, 1)[0]);
+        assertEquals(1 + 3 * Short.BYTES, DailySeriesCodec.encodeSeries(new double[]{1, 2, 3}, 3).length);
+    }
+
+    @Test
+    void fallsBackToDoublesWhenNoScaleIsExact() {
+        double[] values = {0.0625, 1e6, Math.PI};
+        for (double[] series : new double[][]{{0.0625}, {1e6}, {Math.PI}, {40000}}) {
+            byte[] data = DailySeriesCodec.encodeSeries(series, 1);
+            assertEquals(127, data[0]);
+            assertEquals(1 + Double.BYTES, data.length);
+            assertArrayEquals(series, DailySeriesCodec.decodeSeries(data, 1));
+        }
+        assertArrayEquals(values, DailySeriesCodec.decodeSeries(DailySeriesCodec.encodeSeries(values, 3), 3));
+    }
+
+    @Test
+    void missingValuesUseShortMinValue() {
+        byte[] data = DailySeriesCodec.encodeSeries(new double[]{Double.NaN, 7}, 2);
+        assertEquals(0, data[0]);
+        // Little-endian Short.MIN_VALUE
+        assertEquals(0x00, data[1] & 0xff);
+        assertEquals(0x80, data[2] & 0xff);
+        double[] decoded = DailySeriesCodec.decodeSeries(data, 2);
+        assertTrue(Double.isNaN(decoded[0]));
+        assertEquals(7.0, decoded[1]);
+
+        double[] allMissing = DailySeriesCodec.decodeSeries(
+                DailySeriesCodec.encodeSeries(new double[]{Double.NaN, Double.NaN}, 2), 2);
+        assertTrue(Double.isNaN(allMissing[0]) && Double.isNaN(allMissing[1]));
+    }
+
+    @Test
+    void shortMinValueItselfIsNotScaled() {
+        // It would read back as missing, so the series has to be stored as doubles
+        byte[] data = DailySeriesCodec.encodeSeries(new double[]{Short.MIN_VALUE}, 1);
+        assertEquals(127, data[0]);
+        assertArrayEquals(new double[]{Short.MIN_VALUE}, DailySeriesCodec.decodeSeries(data, 1));
+        assertEquals(0, DailySeriesCodec.encodeSeries(new double[]{Short.MIN_VALUE + 1}, 1)[0]);
+    }
+
+    @Test
+    void shortSeriesArePaddedWithMissingValues() {
+        double[] decoded = DailySeriesCodec.decodeSeries(DailySeriesCodec.encodeSeries(new double[]{4}, 3), 3);
+        assertEquals(4.0, decoded[0]);
+        assertTrue(Double.isNaN(decoded[1]) && Double.isNaN(decoded[2]));
+    }
+
+    @Test
+    void rejectsSectionsWithoutConsecutiveDates() {
+        assertNull(DailySeriesCodec.encode(daily(new String[0], new double[0], new double[0])));
+        assertNull(DailySeriesCodec.encode(daily(new String[]{"2024-01-01", "2024-01-03"},
+                new double[2], new double[2])));
+        assertNull(DailySeriesCodec.encode(daily(new String[]{"yesterday"}, new double[1], new double[1])));
+    }
+
+    @Test
+    void rejectsMissingOrMalformedFields() {
+        Map<String, byte[]> fields = DailySeriesCodec.encode(daily(new String[]{"2024-01-01", "2024-01-02"},
+                new double[]{1, 2}, new double[]{3, 4}));
+
+        Map<String, byte[]> noMeta = new HashMap<>(fields);
+        noMeta.remove(DailySeriesCodec.META_FIELD);
+        assertNull(DailySeriesCodec.decode(noMeta, VARIABLES));
+
+        Map<String, byte[]> noVariable = new HashMap<>(fields);
+        noVariable.remove("precipitation_sum");
+        assertNull(DailySeriesCodec.decode(noVariable, VARIABLES));
+
+        for (String meta : new String[]{"", "2024-01-01", "2024-13-01,2", "2024-01-01,two"}) {
+            Map<String, byte[]> badMeta = new HashMap<>(fields);
+            badMeta.put(DailySeriesCodec.META_FIELD, meta.getBytes(StandardCharsets.UTF_8));
+            assertNull(DailySeriesCodec.decode(badMeta, VARIABLES), meta);
+        }
+
+        byte[] series = fields.get("temperature_2m_mean");
+        assertNull(DailySeriesCodec.decodeSeries(new byte[0], 2));
+        assertNull(DailySeriesCodec.decodeSeries(series, 3));
+        assertNull(DailySeriesCodec.decodeSeries(new byte[]{4, 0, 0, 0, 0}, 2));
+        assertNull(DailySeriesCodec.decodeSeries(new byte[]{127, 0, 0}, 2));
+    }
+
+    @Test
+    void fieldsStartWithTheMetadata() {
+        assertEquals(List.of("meta", "temperature_2m_mean", "precipitation_sum"), DailySeriesCodec.fieldsFor(VARIABLES));
+        assertEquals(List.of("meta"), DailySeriesCodec.fieldsFor(List.of()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.weatherappjava.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoHashTest {
+
+    @Test
+    void encodesKnownPoints() {
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("s0000", GeoHash.encode(0, 0, 5));
+        assertEquals("0000", GeoHash.encode(-90, -180, 4));
+        assertEquals("zzzz", GeoHash.encode(90, 180, 4));
+    }
+
+    @Test
+    void clampsPrecision() {
+        assertEquals(1, GeoHash.encode(52.23, 21.01, 0).length());
+        assertEquals(12, GeoHash.encode(52.23, 21.01, 40).length());
+    }
+
+    @Test
+    void nearbyPointsShareACell() {
+        assertEquals(GeoHash.encode(52.2297, 21.0122, 5), GeoHash.encode(52.2298, 21.0121, 5));
+        assertNotEquals(GeoHash.encode(52.2297, 21.0122, 5), GeoHash.encode(50.0647, 19.9450, 5));
+    }
+
+    @Test
+    void centreRoundTripsToTheSameCell() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            for (int precision = 1; precision <= 12; precision++) {
+                String hash = GeoHash.encode(latitude, longitude, precision);
+                double[] centre = GeoHash.decodeCenter(hash);
+                assertEquals(hash, GeoHash.encode(centre[0], centre[1], precision));
+            }
+            double[] centre = GeoHash.decodeCenter(GeoHash.encode(latitude, longitude, 6));
+            // A precision 6 cell is about 1.2 x 0.6 km
+            assertTrue(Math.abs(centre[0] - latitude) < 0.003 && Math.abs(centre[1] - longitude) < 0.006);
+        }
+    }
+
+    @Test
+    void emptyHashIsTheWholeWorld() {
+        assertArrayEquals(new double[]{0, 0}, GeoHash.decodeCenter(""));
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.encode(Double.NaN, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.encode(0, Double.NaN, 5));
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.decodeCenter("u3a"));
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.decodeCenter("u3ł"));
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.decodeCenter("U3Q"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.weatherappjava.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpBodyTest {
+    private static final String TEXT = "{\"daily\": {\"time\": [\"2024-05-01\"], \"temperature_2m_max\": [18.2]}}".repeat(50);
+
+    @Test
+    void identityBodyIsNotCopied() throws IOException {
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        HttpBody body = new HttpBody(200, bytes);
+        assertFalse(body.isCompressed());
+        assertSame(bytes, body.getBytes());
+        assertEquals(bytes.length, body.getDecodedLength());
+        assertEquals(TEXT, body.asString());
+        try (InputStream in = body.openStream()) {
+            assertEquals(TEXT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void gzipBodyStreamsAndDecodesAgain() throws IOException {
+        byte[] compressed = gzip(TEXT.getBytes(StandardCharsets.UTF_8));
+        HttpBody body = new HttpBody(null, 200, "gzip", compressed, null);
+        assertTrue(body.isCompressed());
+        assertEquals(-1, body.getDecodedLength());
+
+        try (InputStream in = body.openStream()) {
+            assertEquals(TEXT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(TEXT.length(), body.getDecodedLength());
+        // Decompressed again on demand, also after streaming
+        assertEquals(TEXT, body.asString());
+        assertEquals(TEXT, body.asString());
+    }
+
+    @Test
+    void deflateBodyWithAndWithoutZlibWrapper() {
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        assertEquals(TEXT, new HttpBody(null, 200, "deflate", deflate(bytes, false), null).asString());
+        assertEquals(TEXT, new HttpBody(null, 200, "Deflate ", deflate(bytes, true), null).asString());
+    }
+
+    @Test
+    void emptyGzipBody() throws IOException {
+        assertEquals("", new HttpBody(null, 200, "gzip", gzip(new byte[0]), null).asString());
+    }
+
+    @Test
+    void corruptOrUnsupportedBodyFails() {
+        assertThrows(UncheckedIOException.class, () -> new HttpBody(null, 200, "gzip", new byte[]{1, 2, 3}, null).asString());
+        assertThrows(IOException.class, () -> new HttpBody(null, 200, "br", new byte[]{1}, null).openStream());
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] bytes, boolean raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflate.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.weatherappjava.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonStreamReaderTest {
+
+    private static JsonStreamReader reader(String json) {
+        // Small buffer so tokens straddle refills
+        return new JsonStreamReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), 16);
+    }
+
+    @Test
+    void readsNestedStructure() throws IOException {
+        JsonStreamReader reader = reader("{\"a\": [1, 2.5, null], \"b\": {\"c\": true, \"d\": \"x\"}, \"e\": false}");
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        reader.beginArray();
+        assertEquals(1.0, reader.nextDouble());
+        assertEquals(2.5, reader.nextDouble());
+        assertTrue(Double.isNaN(reader.nextDouble()));
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertEquals("b", reader.nextName());
+        reader.beginObject();
+        assertEquals("c", reader.nextName());
+        assertTrue(reader.nextBoolean());
+        assertEquals("d", reader.nextName());
+        assertEquals("x", reader.nextString());
+        reader.endObject();
+        assertEquals("e", reader.nextName());
+        assertFalse(reader.nextBoolean());
+        reader.endObject();
+        assertEquals(JsonStreamReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    void readsEmptyContainers() throws IOException {
+        JsonStreamReader reader = reader("[[], {}]");
+        reader.beginArray();
+        reader.beginArray();
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        reader.beginObject();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        reader.endArray();
+        assertEquals(JsonStreamReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    void parsesNumbersExactly() throws IOException {
+        String[] literals = {"0", "-0", "7", "-12.75", "1e3", "2.5E-4", "123456789012345678", "0.1", "-273.15", "1.7976931348623157e308"};
+        JsonStreamReader reader = reader("[" + String.join(",", literals) + "]");
+        reader.beginArray();
+        for (String literal : literals) {
+            assertEquals(Double.parseDouble(literal), reader.nextDouble(), literal);
+        }
+        reader.endArray();
+    }
+
+    @Test
+    void rejectsNumbersOutsideTheGrammar() {
+        for (String literal : new String[]{"-", "01", "-01", "00", "1.", "1.e3", "1e", "1e+", "--1", "1-2", "2.5.1"}) {
+            assertThrows(IOException.class, () -> {
+                JsonStreamReader reader = reader("[" + literal + "]");
+                reader.beginArray();
+                reader.nextDouble();
+            }, literal);
+            assertThrows(IOException.class, () -> reader("[" + literal + "]").skipValue(), literal);
+        }
+    }
+
+    @Test
+    void returnsNumberLiteralAsString() throws IOException {
+        JsonStreamReader reader = reader("[-12.50, \"7\"]");
+        reader.beginArray();
+        assertEquals("-12.50", reader.nextString());
+        assertEquals(7.0, reader.nextDouble());
+        reader.endArray();
+    }
+
+    @Test
+    void decodesEscapesAndUnicode() throws IOException {
+        JsonStreamReader reader = reader("[\"a\\\"b\\\\c\\n\\u00f3\", \"Łódź\", \"\\ud83d\\ude00\"]");
+        reader.beginArray();
+        assertEquals("a\"b\\c\nó", reader.nextString());
+        assertEquals("Łódź", reader.nextString());
+        assertEquals("😀", reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    void skipsNestedValues() throws IOException {
+        JsonStreamReader reader = reader("{\"skip\": {\"x\": [1, [2, {\"y\": \"z\"}]], \"w\": null}, \"keep\": 3}");
+        reader.beginObject();
+        assertEquals("skip", reader.nextName());
+        reader.skipValue();
+        assertEquals("keep", reader.nextName());
+        assertEquals(3.0, reader.nextDouble());
+        reader.endObject();
+    }
+
+    @Test
+    void nullStringIsNull() throws IOException {
+        JsonStreamReader reader = reader("[null]");
+        reader.beginArray();
+        assertNull(reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    void truncatedArraysThrowIOException() {
+        for (String json : new String[]{"[", "[ ", "[1", "[1,", "[1, 2", "[[", "[\"ab", "[tr"}) {
+            assertThrows(IOException.class, () -> reader(json).skipValue(), json);
+        }
+    }
+
+    @Test
+    void truncatedObjectsThrowIOException() {
+        for (String json : new String[]{"{", "{ ", "{\"a\"", "{\"a\":", "{\"a\": 1", "{\"a\": 1,", "{\"a\": {"}) {
+            assertThrows(IOException.class, () -> reader(json).skipValue(), json);
+        }
+    }
+
+    @Test
+    void malformedInputThrowsIOException() {
+        for (String json : new String[]{"", "]", "[1 2]", "{\"a\" 1}", "{1: 2}", "[nul]", "[@]", "{\"a\": 1}}"}) {
+            assertThrows(IOException.class, () -> {
+                JsonStreamReader reader = reader(json);
+                reader.skipValue();
+                if (reader.peek() != JsonStreamReader.Token.END_DOCUMENT) {
+                    throw new IOException("trailing data");
+                }
+            }, json);
+        }
+    }
+
+    @Test
+    void countsBytesRead() throws IOException {
+        String json = "{\"a\": [1, 2, 3, 4, 5, 6, 7, 8]}";
+        JsonStreamReader reader = reader(json);
+        reader.skipValue();
+        assertEquals(JsonStreamReader.Token.END_DOCUMENT, reader.peek());
+        assertEquals(json.length(), reader.getBytesRead());
+    }
+}
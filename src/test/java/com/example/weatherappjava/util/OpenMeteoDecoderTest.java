@@ -0,0 +1,100 @@
+package com.example.weatherappjava.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenMeteoDecoderTest {
+    private static final String FORECAST = "{\"latitude\": 52.23, \"timezone\": \"Europe/Warsaw\","
+            + "\"current\": {\"temperature_2m\": 12.4, \"is_day\": 1},"
+            + "\"daily\": {\"time\": [\"2024-05-01\", \"2024-05-02\", \"2024-05-03\"],"
+            + " \"temperature_2m_max\": [18.2, null, 20.0],"
+            + " \"precipitation_sum\": [null, null, 1.5],"
+            + " \"weather_code\": [],"
+            + " \"units\": [true, false]},"
+            + "\"hourly\": {\"time\": [\"2024-05-01T00:00\"], \"temperature_2m\": [10.1]}}";
+
+    @Test
+    void decodesSectionsIntoPrimitiveArrays() throws IOException {
+        JsonRecord record = OpenMeteoDecoder.decode(FORECAST);
+        assertEquals(52.23, record.getDouble("latitude"));
+        assertEquals("Europe/Warsaw", record.getString("timezone"));
+        assertEquals(12.4, record.getRecord("current").getDouble("temperature_2m"));
+
+        JsonRecord daily = record.getRecord("daily");
+        assertArrayEquals(new String[]{"2024-05-01", "2024-05-02", "2024-05-03"}, daily.getStrings("time"));
+        double[] max = daily.getDoubles("temperature_2m_max");
+        assertEquals(3, max.length);
+        assertEquals(18.2, max[0]);
+        assertTrue(Double.isNaN(max[1]));
+        assertEquals(20.0, max[2]);
+    }
+
+    @Test
+    void leadingNullsBecomeNaN() throws IOException {
+        double[] precipitation = OpenMeteoDecoder.decode(FORECAST).getRecord("daily").getDoubles("precipitation_sum");
+        assertEquals(3, precipitation.length);
+        assertTrue(Double.isNaN(precipitation[0]));
+        assertTrue(Double.isNaN(precipitation[1]));
+        assertEquals(1.5, precipitation[2]);
+    }
+
+    @Test
+    void emptyAndUnsupportedArrays() throws IOException {
+        JsonRecord daily = OpenMeteoDecoder.decode(FORECAST).getRecord("daily");
+        assertEquals(0, daily.getDoubles("weather_code").length);
+        assertFalse(daily.has("units"));
+    }
+
+    @Test
+    void skipsUnrequestedSections() throws IOException {
+        JsonRecord record = OpenMeteoDecoder.decode(FORECAST, "daily");
+        assertNotNull(record.getRecord("daily"));
+        assertFalse(record.has("current"));
+        assertFalse(record.has("hourly"));
+        // Scalars are always kept
+        assertEquals("Europe/Warsaw", record.getString("timezone"));
+    }
+
+    @Test
+    void decodesMultiLocationArray() throws IOException {
+        String json = "[{\"daily\": {\"time\": [\"2024-01-01\"], \"t\": [1]}}, 5, {\"daily\": {\"time\": [\"2024-01-01\"], \"t\": [2]}}]";
+        List<JsonRecord> records = OpenMeteoDecoder.decodeAll(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "daily");
+        assertEquals(2, records.size());
+        assertEquals(1.0, records.get(0).getRecord("daily").getDoubles("t")[0]);
+        assertEquals(2.0, records.get(1).getRecord("daily").getDoubles("t")[0]);
+    }
+
+    @Test
+    void emptyArrayHasNoRecords() throws IOException {
+        assertTrue(OpenMeteoDecoder.decodeAll(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8))).isEmpty());
+        assertEquals(0, OpenMeteoDecoder.decode("[]").keys().size());
+    }
+
+    @Test
+    void toJsonRoundTrips() throws IOException {
+        JsonRecord daily = OpenMeteoDecoder.decode(FORECAST).getRecord("daily");
+        JsonRecord copy = OpenMeteoDecoder.decode(daily.toJson());
+        assertArrayEquals(daily.getStrings("time"), copy.getStrings("time"));
+        assertArrayEquals(daily.getDoubles("temperature_2m_max"), copy.getDoubles("temperature_2m_max"));
+        assertArrayEquals(daily.getDoubles("precipitation_sum"), copy.getDoubles("precipitation_sum"));
+    }
+
+    @Test
+    void rejectsMalformedResponses() {
+        for (String json : new String[]{"", "42", "\"text\"", "{\"daily\": [1, 2", "[", "{} {}", "{\"a\": tru}"}) {
+            assertThrows(IOException.class, () -> OpenMeteoDecoder.decode(json), json);
+        }
+    }
+}